@@ -0,0 +1,295 @@
+package jedi;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.DefinitionException;
+import jakarta.enterprise.inject.spi.DeploymentException;
+import jakarta.inject.Provider;
+import jedi.bean.BeanInstance;
+import jedi.bean.ScopedBean;
+import jedi.context.SingletonContext;
+import jedi.index.BeanIndex;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static jedi.ReflectionsHelper.getQualifiers;
+import static jedi.ReflectionsHelper.isAbstraction;
+
+/**
+ * Resolves every bean of the index up front, so that the first request finds the container already wired.
+ * <p>
+ * The beans are sorted in levels, each bean coming after every bean its constructor or producer method may depend
+ * on, and the beans of a level are resolved concurrently. A bean depending on one that failed is not resolved, so
+ * each problem is reported once, at the bean it comes from. Beans left out of the levels are part of a cycle, and are
+ * resolved one after another for the cycle to be reported. The dependencies are found from the declared types only,
+ * so the levels may be more conservative than the actual resolution, never less.
+ * <p>
+ * Not every class of the index is a bean. A class is left out when nothing injects it and its constructor can't be
+ * called by the container: it is ambiguous, or it takes a parameter of a type that is not a bean, such as a value
+ * class taking a {@code BigDecimal}. The classes left out are reported by {@link #getSkipped()}, not as failures.
+ * <p>
+ * Once everything is resolved, the {@link Startup} beans are created in the order of their levels, the ones of a
+ * level concurrently. Two of them sharing a singleton only wait on each other for its creation.
+ */
+class Bootstrap {
+  private final JeDI              jedi;
+  private final BeanIndex         metadata;
+  private final Set<Method>       producerMethods;
+  private final Map<Object, Node> nodes   = new LinkedHashMap<>();
+  private final Set<Class<?>>     skipped = new LinkedHashSet<>();
+
+  Bootstrap(JeDI jedi, BeanIndex metadata) {
+    this.jedi = jedi;
+    this.metadata = metadata;
+    this.producerMethods = metadata.getProducerMethods();
+  }
+
+  /**
+   * Resolves every bean then creates the startup beans on the given executor, throwing a {@link DeploymentException}
+   * with each problem found suppressed in it.
+   *
+   * @return how long each startup bean took to create, in creation order
+   */
+  Map<Class<?>, Duration> run(Executor executor) {
+    for (var type : metadata.getBeanClasses())
+      if (!type.isEnum())
+        node(type);
+    for (var m : producerMethods)
+      node(m);
+
+    List<Node> level = new ArrayList<>();
+    for (var node : nodes.values())
+      if (node.pending == 0)
+        level.add(node);
+    var levels = new ArrayList<List<Node>>();
+    while (!level.isEmpty()) {
+      levels.add(level);
+      runConcurrently(level, Node::resolve, executor);
+      level = next(level);
+    }
+    for (var node : nodes.values())
+      if (!node.done)
+        node.resolve();
+    for (var node : nodes.values())
+      if (node.ignored)
+        skipped.add((Class<?>) node.key);
+    checkFailures(nodes.values());
+
+    var times = new LinkedHashMap<Class<?>, Duration>();
+    for (var resolved : levels) {
+      var startup = new ArrayList<Node>();
+      for (var node : resolved)
+        if (node.isStartup())
+          startup.add(node);
+      runConcurrently(startup, Node::start, executor);
+      checkFailures(startup);
+      for (var node : startup)
+        times.putIfAbsent(node.bean.getBeanClass(), node.startupTime);
+    }
+    return Collections.unmodifiableMap(times);
+  }
+
+  /**
+   * The classes of the index that were not taken as beans by {@link #run}.
+   */
+  Set<Class<?>> getSkipped() {
+    return Collections.unmodifiableSet(skipped);
+  }
+
+  private static void runConcurrently(List<Node> nodes, Consumer<Node> action, Executor executor) {
+    var tasks = new CompletableFuture<?>[nodes.size()];
+    for (int i = 0; i < tasks.length; i++) {
+      var node = nodes.get(i);
+      tasks[i] = CompletableFuture.runAsync(() -> action.accept(node), executor);
+    }
+    CompletableFuture.allOf(tasks).join();
+  }
+
+  private static void checkFailures(Collection<Node> nodes) {
+    var failures = new ArrayList<Node>();
+    for (var node : nodes)
+      if (node.failure != null)
+        failures.add(node);
+    if (!failures.isEmpty())
+      throw deploymentException(failures);
+  }
+
+  private static List<Node> next(List<Node> level) {
+    var next = new ArrayList<Node>();
+    for (var node : level)
+      for (var dependent : node.dependents)
+        if (--dependent.pending == 0)
+          next.add(dependent);
+    return next;
+  }
+
+  private static DeploymentException deploymentException(List<Node> failures) {
+    var message = new StringBuilder().append(failures.size()).append(" bean(s) could not be deployed:");
+    for (var node : failures)
+      message.append("\n - ").append(node).append(": ").append(node.failure.getMessage());
+    var e = new DeploymentException(message.toString());
+    for (var node : failures)
+      e.addSuppressed(node.failure);
+    return e;
+  }
+
+  private Node node(Object key) {
+    var node = nodes.get(key);
+    if (node != null)
+      return node;
+    node = new Node(key);
+    nodes.put(key, node);
+    if (key instanceof Method) {
+      var m = (Method) key;
+      node.dependsOn(node(m.getDeclaringClass()));
+      addDependencies(node, m.getParameters());
+    } else {
+      try {
+        node.constructible = addDependencies(node, metadata.getInjectableConstructor((Class<?>) key).getParameters());
+      } catch (RuntimeException e) {
+        // an ambiguous constructor, reported when the class is injected somewhere
+        node.constructible = false;
+      }
+    }
+    return node;
+  }
+
+  // The beans that may be injected into the parameters: the class itself, its implementations and its producers.
+  // Returns false when a parameter has none of them.
+  private boolean addDependencies(Node node, Parameter[] parameters) {
+    var satisfiable = true;
+    for (var p : parameters) {
+      var type = p.getType();
+      if (type == Instance.class || type == Provider.class)
+        continue;
+      var candidates = 0;
+      if (!type.isPrimitive() && !type.isArray()) {
+        if (isBeanClass(type)) {
+          node.dependsOn(node(type));
+          candidates++;
+        }
+        for (var implementation : metadata.getImplementations(type)) {
+          node.dependsOn(node(implementation));
+          candidates++;
+        }
+        for (var m : producerMethods) {
+          if (type.isAssignableFrom(m.getReturnType())) {
+            node.dependsOn(node(m));
+            candidates++;
+          }
+        }
+      }
+      satisfiable &= candidates > 0;
+    }
+    return satisfiable;
+  }
+
+  // A concrete class of the index, or one outside of it whose constructor the container can call.
+  private boolean isBeanClass(Class<?> type) {
+    if (isAbstraction(type) || type.isEnum())
+      return false;
+    if (nodes.containsKey(type) || metadata.getBeanClasses().contains(type))
+      return true;
+    try {
+      metadata.getInjectableConstructor(type);
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private class Node {
+    private final Object           key;
+    private final List<Node>       dependencies = new ArrayList<>();
+    private final List<Node>       dependents   = new ArrayList<>();
+    // written by the level's task, read once the level is joined
+    private       int              pending;
+    private       boolean          done;
+    private       boolean          skipped;
+    private       boolean          constructible = true;
+    private       boolean          ignored;
+    private       RuntimeException failure;
+    private       Bean<?>          bean;
+    private       Duration         startupTime;
+
+    Node(Object key) {
+      this.key = key;
+    }
+
+    void dependsOn(Node node) {
+      if (node == this || dependencies.contains(node))
+        return;
+      dependencies.add(node);
+      node.dependents.add(this);
+      pending++;
+    }
+
+    void resolve() {
+      done = true;
+      if (!constructible && dependents.isEmpty() && !isStartup()) {
+        ignored = true;
+        return;
+      }
+      for (var dependency : dependencies) {
+        if (dependency.failure != null || dependency.skipped) {
+          skipped = true;
+          return;
+        }
+      }
+      try {
+        bean = ((BeanInstance<?>) select()).findBean();
+        if (isStartup() && !(bean instanceof ScopedBean
+            && ((ScopedBean<?>) bean).getContext() instanceof SingletonContext))
+          throw new DefinitionException("The @Startup bean " + this + " must be @Singleton or @ApplicationScoped");
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+
+    boolean isStartup() {
+      return ((AnnotatedElement) key).isAnnotationPresent(Startup.class);
+    }
+
+    void start() {
+      var start = System.nanoTime();
+      try {
+        ((ScopedBean<?>) bean).getInstance();
+        startupTime = Duration.ofNanos(System.nanoTime() - start);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+
+    private Instance<?> select() {
+      if (key instanceof Class)
+        return jedi.select((Class<?>) key);
+      var m = (Method) key;
+      var type = m.getGenericReturnType() instanceof ParameterizedType ? m.getGenericReturnType() : m.getReturnType();
+      return jedi.selectType(type, getQualifiers(m).toArray(new Annotation[0]));
+    }
+
+    @Override
+    public String toString() {
+      if (key instanceof Class)
+        return ((Class<?>) key).getName();
+      var m = (Method) key;
+      return m.getDeclaringClass().getName() + "." + m.getName();
+    }
+  }
+}
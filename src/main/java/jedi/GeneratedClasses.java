@@ -0,0 +1,72 @@
+package jedi;
+
+import javassist.bytecode.ClassFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Defines the classes the container generates next to a host class, in the host's package.
+ * <p>
+ * They are hidden classes on JVMs supporting them, so they can be unloaded with their users and never clash by name.
+ * The build targets Java 11, so {@code Lookup.defineHiddenClass} is looked up reflectively, and regular classes are
+ * defined before Java 15.
+ */
+public final class GeneratedClasses {
+  private static final AtomicLong   COUNTER = new AtomicLong();
+  private static final MethodHandle DEFINE_HIDDEN_CLASS;
+  private static final Object       NO_CLASS_OPTIONS;
+
+  static {
+    MethodHandle defineHiddenClass = null;
+    Object options = null;
+    try {
+      var classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+      options = Array.newInstance(classOption, 0);
+      defineHiddenClass = MethodHandles.publicLookup().findVirtual(MethodHandles.Lookup.class, "defineHiddenClass",
+          methodType(MethodHandles.Lookup.class, byte[].class, boolean.class, options.getClass())).asFixedArity();
+    } catch (ReflectiveOperationException e) {
+      // before Java 15
+    }
+    DEFINE_HIDDEN_CLASS = defineHiddenClass;
+    NO_CLASS_OPTIONS = options;
+  }
+
+  private GeneratedClasses() {}
+
+  /**
+   * A class name in the host's package, unique even when the class ends up being a regular class.
+   */
+  public static String name(Class<?> host, String suffix) {
+    return host.getName() + suffix + COUNTER.incrementAndGet();
+  }
+
+  /**
+   * Defines the given class, returning a lookup with full access to it.
+   */
+  public static MethodHandles.Lookup define(Class<?> host, ClassFile file) throws Throwable {
+    var bytes = toBytes(file);
+    var lookup = MethodHandles.privateLookupIn(host, MethodHandles.lookup());
+    if (DEFINE_HIDDEN_CLASS != null) {
+      try {
+        return (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(lookup, bytes, true, NO_CLASS_OPTIONS);
+      } catch (IllegalAccessException e) {
+        // the host is in another module, which only grants package access
+      }
+    }
+    return MethodHandles.privateLookupIn(lookup.defineClass(bytes), lookup);
+  }
+
+  private static byte[] toBytes(ClassFile file) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    file.write(new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+}
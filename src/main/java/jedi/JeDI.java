@@ -1,47 +1,217 @@
 package jedi;
 
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.RequestContextController;
+import jakarta.enterprise.context.spi.Context;
 import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.inject.spi.Bean;
 import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.enterprise.inject.spi.CDI;
+import jakarta.enterprise.inject.spi.DeploymentException;
+import jakarta.enterprise.inject.spi.Producer;
 import jakarta.enterprise.util.TypeLiteral;
+import jakarta.inject.Singleton;
 import jedi.bean.BeanInstance;
 import jedi.bean.ManagedBean;
+import jedi.bean.ScopedBean;
+import jedi.context.DependentInstances;
+import jedi.context.PooledContext;
+import jedi.context.RequestContext;
+import jedi.context.SingletonContext;
+import jedi.index.BeanIndex;
+import jedi.index.ClasspathScan;
+import jedi.index.CompiledBeanIndex;
+import jedi.index.ReflectionsBeanIndex;
+import jedi.index.ScanCache;
+import jedi.injection.producer.MethodProducer;
 import jedi.injection.producer.ProducerFactory;
+import jedi.jfr.ResolutionEvent;
+import jedi.jfr.ScanEvent;
+import jedi.metrics.ContainerMetrics;
+import jedi.metrics.MetricsExporter;
+import jedi.metrics.MetricsSnapshot;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static jedi.ReflectionsHelper.*;
-import static org.reflections.scanners.Scanners.SubTypes;
 
-public class JeDI extends CDI<Object> {
-  private final Set<QualifiedType<?>>              seen = new HashSet<>();
-  private final Map<QualifiedType<?>, Instance<?>> cache = new ConcurrentHashMap<>();
-  private final ProducerFactory                    producerFactory;
-  private final Reflections                        metadata;
+public class JeDI extends CDI<Object> implements AutoCloseable {
+  private final QualifiedTypes                             keys           = new QualifiedTypes();
+  private final Map<QualifiedType<?>, Instance<?>>         cache          = new ConcurrentHashMap<>();
+  private final Resolutions<QualifiedType<?>, Instance<?>> resolutions    = new Resolutions<>(cache,
+      t -> new CircularDependencyException("Circular dependency detected on type [" + t.getGenericType() + "]"));
+  private final Map<QualifiedType<?>, Instance<Object>>    selections     = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<Type, Set<Bean<?>>>>     typeIndexes    = new ConcurrentHashMap<>();
+  private final Map<Object, Bean<?>>                       beans          = new ConcurrentHashMap<>();
+  private final Map<Class<? extends Annotation>, Context>  contexts       = new ConcurrentHashMap<>();
+  private final RequestContext                             requestContext = new RequestContext();
+  private final PooledContext                              pooledContext  = new PooledContext();
+  private final DependentInstances                         dependents     = new DependentInstances();
+  private final ContainerMetrics                           metrics        = new ContainerMetrics();
+  private final ProducerFactory                            producerFactory;
+  private final BeanIndex                                  metadata;
+  private volatile Map<Class<?>, Duration>                 startupTimes   = Map.of();
+  private volatile Set<Class<?>>                           skippedClasses = Set.of();
 
   public JeDI(String prefix) {
-    this(prefix, Scanners.values());
+    this(prefix, ReflectionsBeanIndex.SCANNERS);
   }
 
+  /**
+   * Uses the {@link CompiledBeanIndex} of the given package when there is one, unless the
+   * {@value CompiledBeanIndex#ENABLED_PROPERTY} system property is {@code false}, scanning the classpath otherwise.
+   * The scan is kept in a {@link ScanCache} when the {@value ScanCache#DIRECTORY_PROPERTY} system property is set.
+   */
   public JeDI(String prefix, Scanners... scanners) {
+    this(new LoadedIndex(prefix, scanners));
+  }
+
+  private JeDI(LoadedIndex index) {
+    this(index.metadata);
+    metrics.recordScan(index.nanos);
+  }
+
+  /**
+   * Uses the given index, whose scan time is reported by the metrics when it comes from a {@link ClasspathScan}.
+   */
+  public JeDI(BeanIndex metadata) {
     setCDIProvider(() -> this);
-    metadata = new Reflections(prefix, scanners);
+    this.metadata = metadata;
+    if (metadata instanceof ReflectionsBeanIndex && ((ReflectionsBeanIndex) metadata).getScanReport() != null)
+      metrics.recordScan(((ReflectionsBeanIndex) metadata).getScanReport().getDuration().toNanos());
+    addContext(new SingletonContext(Singleton.class));
+    addContext(new SingletonContext(ApplicationScoped.class));
+    addContext(requestContext);
+    addContext(pooledContext);
     producerFactory = new ProducerFactory();
   }
 
-  public Reflections getMetadata() {
+  private static BeanIndex loadMetadata(String prefix, Scanners... scanners) {
+    var event = new ScanEvent();
+    event.begin();
+    var compiled = !"false".equals(System.getProperty(CompiledBeanIndex.ENABLED_PROPERTY));
+    BeanIndex index = compiled ? CompiledBeanIndex.load(prefix) : null;
+    if (index != null) {
+      event.commit(prefix, ScanEvent.COMPILED);
+      return index;
+    }
+    var cacheDirectory = System.getProperty(ScanCache.DIRECTORY_PROPERTY);
+    index = new ReflectionsBeanIndex(cacheDirectory != null
+        ? new ScanCache(Path.of(cacheDirectory)).scan(prefix, scanners)
+        : new Reflections(prefix, ReflectionsBeanIndex.withBeanClasses(scanners)));
+    event.commit(prefix, cacheDirectory != null ? ScanEvent.CACHED : ScanEvent.SCANNED);
+    return index;
+  }
+
+  public BeanIndex getMetadata() {
     return metadata;
   }
 
+  /**
+   * Resolves every bean of the index and creates the {@link Startup} beans on the common fork join pool.
+   *
+   * @see #bootstrap(Executor)
+   */
+  public void bootstrap() {
+    bootstrap(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Resolves every bean of the index up front, the beans a bean depends on first and the independent ones
+   * concurrently on the given executor, so that no resolution is left for the first requests. Then creates the
+   * {@link Startup} beans in the same order, and no other instance.
+   *
+   * @throws DeploymentException with every unsatisfied, ambiguous or circular dependency found suppressed in it, or
+   *                             the failures of the startup beans
+   */
+  public void bootstrap(Executor executor) {
+    var bootstrap = new Bootstrap(this, metadata);
+    try {
+      startupTimes = bootstrap.run(executor);
+    } finally {
+      skippedClasses = bootstrap.getSkipped();
+    }
+  }
+
+  /**
+   * The classes of the index the last {@link #bootstrap} didn't take as beans: nothing injects them and the container
+   * can't call their constructor, as for a value class taking a {@code BigDecimal}.
+   */
+  public Set<Class<?>> getSkippedClasses() {
+    return skippedClasses;
+  }
+
+  /**
+   * How long each {@link Startup} bean took to be created by the last {@link #bootstrap}, in creation order. The
+   * time of a bean includes the creation of the singletons it depends on that no other startup bean created before.
+   */
+  public Map<Class<?>, Duration> getStartupTimes() {
+    return startupTimes;
+  }
+
+  /**
+   * A snapshot of the activity of the container: selections and their resolution, instances created and alive, and
+   * the loading of the bean index.
+   */
+  public MetricsSnapshot getMetrics() {
+    var live = new HashMap<Class<? extends Annotation>, Integer>();
+    for (var context : contexts.values()) {
+      if (context instanceof SingletonContext)
+        live.put(context.getScope(), ((SingletonContext) context).size());
+      else if (context instanceof PooledContext)
+        live.put(context.getScope(), ((PooledContext) context).size());
+    }
+    return metrics.snapshot(live);
+  }
+
+  /**
+   * Hands a snapshot of the metrics to the given exporter.
+   */
+  public void exportMetrics(MetricsExporter exporter) {
+    exporter.export(getMetrics());
+  }
+
+  /**
+   * Creates the arguments of a constructor or producer method that share no scoped bean concurrently on the given
+   * executor, or one after another when it is null. Only the beans resolved from now on are affected.
+   */
+  public void setConstructionExecutor(Executor executor) {
+    producerFactory.setExecutor(executor);
+  }
+
+  public void addContext(Context context) {
+    contexts.put(context.getScope(), context);
+  }
+
+  /**
+   * Activates and deactivates the {@code @RequestScoped} context around a request on the current thread.
+   */
+  public RequestContextController getRequestContextController() {
+    return requestContext;
+  }
+
+  /**
+   * The context of the given scope, or null for {@code @Dependent} and unknown scopes.
+   */
+  public Context getContext(Class<? extends Annotation> scope) {
+    return contexts.get(scope);
+  }
+
   public <U> U getBean(Class<U> subtype, Annotation... annotations) {
     return select(subtype, annotations).get();
   }
@@ -51,44 +221,146 @@ public class JeDI extends CDI<Object> {
     return null;
   }
 
+  /**
+   * The qualifiers to apply to the types selected from the returned instance, cached per combination of qualifiers.
+   */
   @Override
   public Instance<Object> select(Annotation... annotations) {
-    return null;
+    var key = keys.get(Object.class, annotations);
+    var instance = selections.get(key);
+    return instance != null ? instance : selections.computeIfAbsent(key, k -> new QualifiedInstance(this, annotations));
   }
 
   @Override
   public <U> Instance<U> select(Class<U> subtype, Annotation... annotations) {
-    Set<Annotation> qualifiers = getQualifiers(annotations);
-    var qualifiedType = new QualifiedType<>(subtype, qualifiers);
-    if (cache.containsKey(qualifiedType))
-      return cast(cache.get(qualifiedType));
-    if (seen.contains(qualifiedType))
-      throw new CircularDependencyException("Circular dependency detected on type [" + subtype.toString() + "]");
-    seen.add(qualifiedType);
-    var instance = resolveInstance(subtype, qualifiers);
-    cache.put(qualifiedType, instance);
-    seen.remove(qualifiedType);
-    return instance;
+    var event = new ResolutionEvent();
+    event.begin();
+    var qualifiedType = keys.get(subtype, annotations);
+    var instance = cache.get(qualifiedType);
+    var cacheHit = instance != null;
+    if (cacheHit) {
+      metrics.recordHit();
+    } else {
+      var start = System.nanoTime();
+      instance = resolutions.resolve(qualifiedType, t -> resolveInstance(subtype, t.getQualifiers()));
+      metrics.recordMiss(System.nanoTime() - start);
+    }
+    event.commit(subtype, qualifiedType.getQualifiers(), cacheHit);
+    return cast(instance);
   }
 
   public <U> Instance<U> resolveInstance(Class<U> subtype, Set<Annotation> qualifiers) {
     var producer = producerFactory.createProducer(subtype, qualifiers.toArray(new Annotation[]{}));
     if (producer == null && isAbstraction(subtype))
-      return new BeanInstance<>(findImplementations(subtype), subtype, qualifiers);
-    return new BeanInstance<>(Set.of(new ManagedBean<>(subtype, producer)));
+      return new BeanInstance<>(findImplementations(subtype), subtype, qualifiers, dependents);
+    return new BeanInstance<>(Set.of(bean(subtype, producer)), null, Set.of(), dependents);
+  }
+
+  private <U> Instance<U> resolveInstance(ParameterizedType type, Set<Annotation> qualifiers) {
+    Class<U> rawType = cast(type.getRawType());
+    var beans = new HashSet<Bean<U>>();
+    for (var producer : producerFactory.createProducers(type, qualifiers.toArray(new Annotation[]{})))
+      beans.add(bean(rawType, cast(producer)));
+    for (var bean : getTypeIndex(rawType).getOrDefault(type, Set.of()))
+      beans.add(cast(bean));
+    // the producer methods and subclasses of the parameterized type take the place of the constructor
+    if (beans.isEmpty() && !isAbstraction(rawType) && isAssignableFromGeneric(rawType, type))
+      beans.add(bean(rawType, producerFactory.createConstructorProducer(rawType)));
+    return new BeanInstance<>(beans, type, qualifiers, dependents);
+  }
+
+  // A concrete generic class, class Holder<T>, is a bean of every parameterization its type variables allow.
+  private static boolean isAssignableFromGeneric(Class<?> rawType, ParameterizedType type) {
+    if (getTypeClosure(rawType).contains(type))
+      return true;
+    var variables = rawType.getTypeParameters();
+    var arguments = type.getActualTypeArguments();
+    if (variables.length == 0 || variables.length != arguments.length)
+      return false;
+    for (int i = 0; i < variables.length; i++) {
+      var argument = arguments[i] instanceof ParameterizedType
+          ? ((ParameterizedType) arguments[i]).getRawType() : arguments[i];
+      if (!(argument instanceof Class))
+        return false;
+      for (var bound : variables[i].getBounds())
+        if (bound instanceof Class && !((Class<?>) bound).isAssignableFrom((Class<?>) argument))
+          return false;
+    }
+    return true;
+  }
+
+  // The implementations of a generic type by the parameterized forms of it they have, so that selecting one of them
+  // is a hash lookup. Not built with computeIfAbsent, as wiring the implementations may index other generic types.
+  private Map<Type, Set<Bean<?>>> getTypeIndex(Class<?> rawType) {
+    var index = typeIndexes.get(rawType);
+    if (index != null)
+      return index;
+    var types = new HashMap<Type, Set<Bean<?>>>();
+    for (var implementation : metadata.getImplementations(rawType)) {
+      var bean = ((BeanInstance<?>) select(implementation)).findBean();
+      for (var type : bean.getTypes())
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == rawType)
+          types.computeIfAbsent(type, k -> new HashSet<>()).add(bean);
+    }
+    index = typeIndexes.putIfAbsent(rawType, Map.copyOf(types));
+    return index != null ? index : typeIndexes.get(rawType);
+  }
+
+  // One bean per bean class or producer method, whatever the types and qualifiers it is selected with, as the
+  // contexts keep the instances by bean. The producer of a bean selected again is dropped.
+  private <U> Bean<U> bean(Class<U> beanClass, Producer<U> producer) {
+    var key = producer instanceof MethodProducer ? ((MethodProducer<U>) producer).getMethod() : beanClass;
+    var bean = beans.get(key);
+    if (bean == null) {
+      var created = contextual(new ManagedBean<>(beanClass, producer, metrics.getCreationCounter(beanClass)));
+      bean = beans.putIfAbsent(key, created);
+      if (bean == null)
+        return created;
+    }
+    return cast(bean);
+  }
+
+  private <U> Bean<U> contextual(Bean<U> bean) {
+    var context = contexts.get(bean.getScope());
+    return context != null ? new ScopedBean<>(bean, context) : bean;
   }
 
   @SuppressWarnings("unchecked")
   private <U> Set<Bean<U>> findImplementations(Class<U> subtype) {
-    var subTypes = metadata.get(SubTypes.of(subtype).asClass());
-    return subTypes.stream()
+    return metadata.getImplementations(subtype).stream()
         .map(c -> ((BeanInstance<U>) select(c)).findBean())
         .collect(Collectors.toSet());
   }
 
   @Override
   public <U> Instance<U> select(TypeLiteral<U> typeLiteral, Annotation... annotations) {
-    return null;
+    return selectType(typeLiteral.getType(), annotations);
+  }
+
+  /**
+   * The beans of the given class, or of the given parameterized type with exactly the same type arguments:
+   * {@code Repository<User>} and {@code Repository<Order>} select different beans.
+   */
+  public <U> Instance<U> selectType(Type type, Annotation... annotations) {
+    if (type instanceof Class)
+      return select(ReflectionsHelper.<Class<U>>cast(type), annotations);
+    if (!(type instanceof ParameterizedType))
+      throw new IllegalArgumentException("Beans can't be selected by the type " + type.getTypeName());
+    var event = new ResolutionEvent();
+    event.begin();
+    QualifiedType<U> qualifiedType = keys.get((ParameterizedType) type, annotations);
+    var instance = cache.get(qualifiedType);
+    var cacheHit = instance != null;
+    if (cacheHit) {
+      metrics.recordHit();
+    } else {
+      var start = System.nanoTime();
+      instance = resolutions.resolve(qualifiedType,
+          t -> resolveInstance((ParameterizedType) t.getGenericType(), t.getQualifiers()));
+      metrics.recordMiss(System.nanoTime() - start);
+    }
+    event.commit(type, qualifiedType.getQualifiers(), cacheHit);
+    return cast(instance);
   }
 
   @Override
@@ -101,9 +373,34 @@ public class JeDI extends CDI<Object> {
     return false;
   }
 
+  /**
+   * Destroys a {@code @Dependent} instance obtained from this container, with its own dependents, or gives a
+   * {@link jedi.context.Pooled} instance back to its pool.
+   */
   @Override
   public void destroy(Object o) {
+    if (!dependents.destroy(o))
+      pooledContext.release(o);
+  }
 
+  /**
+   * Destroys the dependent instances not destroyed yet, then the singletons and application scoped beans, the last
+   * created first, then the pooled instances, and forgets every resolved bean.
+   */
+  @Override
+  public void close() {
+    try {
+      dependents.destroyAll();
+      for (var context : contexts.values())
+        if (context instanceof SingletonContext)
+          ((SingletonContext) context).destroyAll();
+      pooledContext.destroyAll();
+    } finally {
+      cache.clear();
+      selections.clear();
+      typeIndexes.clear();
+      beans.clear();
+    }
   }
 
   @Override
@@ -126,31 +423,15 @@ public class JeDI extends CDI<Object> {
     return null;
   }
 
-  static class QualifiedType<T> {
-    private final Class<T> type;
-    private final Set<Annotation> qualifiers;
-
-    public QualifiedType(Class<T> type, Set<Annotation> qualifiers) {
-      this.type = type;
-      this.qualifiers = qualifiers;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-      if (!(obj instanceof QualifiedType))
-        return false;
-      QualifiedType<T> other = cast(obj);
-      return this.type.equals(other.type) && this.qualifiers.equals(other.qualifiers);
-    }
+  // The index of a prefix, and how long it took to load.
+  private static final class LoadedIndex {
+    private final BeanIndex metadata;
+    private final long      nanos;
 
-    @Override
-    public int hashCode() {
-      return type != null && qualifiers != null
-          ? type.hashCode() + qualifiers.stream()
-          .map(Annotation::annotationType)
-          .map(Class::hashCode)
-          .reduce(0, Integer::sum)
-          : super.hashCode();
+    LoadedIndex(String prefix, Scanners... scanners) {
+      var start = System.nanoTime();
+      metadata = loadMetadata(prefix, scanners);
+      nanos = System.nanoTime() - start;
     }
   }
 
@@ -0,0 +1,63 @@
+package jedi;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * A parameterized type whose type arguments were resolved by the container. It is equal to, and hashes like, the
+ * JDK's own parameterized types, such as the ones of a {@link jakarta.enterprise.util.TypeLiteral}, so either can be
+ * used to look the other up.
+ */
+final class ParameterizedTypeImpl implements ParameterizedType {
+  private final Class<?> rawType;
+  private final Type[]   actualTypeArguments;
+  private final Type     ownerType;
+
+  ParameterizedTypeImpl(Class<?> rawType, Type[] actualTypeArguments, Type ownerType) {
+    this.rawType = rawType;
+    this.actualTypeArguments = actualTypeArguments;
+    this.ownerType = ownerType != null ? ownerType : rawType.getDeclaringClass();
+  }
+
+  @Override
+  public Type[] getActualTypeArguments() {
+    return actualTypeArguments.clone();
+  }
+
+  @Override
+  public Type getRawType() {
+    return rawType;
+  }
+
+  @Override
+  public Type getOwnerType() {
+    return ownerType;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o)
+      return true;
+    if (!(o instanceof ParameterizedType))
+      return false;
+    var that = (ParameterizedType) o;
+    return Objects.equals(ownerType, that.getOwnerType()) && rawType.equals(that.getRawType())
+        && Arrays.equals(actualTypeArguments, that.getActualTypeArguments());
+  }
+
+  // the same as sun.reflect.generics.reflectiveObjects.ParameterizedTypeImpl
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ rawType.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return rawType.getName() + Arrays.stream(actualTypeArguments)
+        .map(Type::getTypeName)
+        .collect(Collectors.joining(", ", "<", ">"));
+  }
+}
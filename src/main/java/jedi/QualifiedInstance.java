@@ -0,0 +1,91 @@
+package jedi;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.UnsatisfiedResolutionException;
+import jakarta.enterprise.util.TypeLiteral;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * What {@link JeDI#select(Annotation...)} returns: the qualifiers to apply to the next typed selection. The container
+ * only resolves beans by type, so this instance has no bean of its own until a type is selected from it.
+ */
+final class QualifiedInstance implements Instance<Object> {
+  private final JeDI         container;
+  private final Annotation[] qualifiers;
+
+  QualifiedInstance(JeDI container, Annotation[] qualifiers) {
+    for (var qualifier : qualifiers)
+      if (!ReflectionsHelper.isQualifier(qualifier.annotationType()))
+        throw new IllegalArgumentException(qualifier + " is not a qualifier");
+    this.container = container;
+    this.qualifiers = qualifiers.clone();
+  }
+
+  @Override
+  public Instance<Object> select(Annotation... annotations) {
+    return annotations.length == 0 ? this : container.select(concat(annotations));
+  }
+
+  @Override
+  public <U> Instance<U> select(Class<U> subtype, Annotation... annotations) {
+    return container.select(subtype, concat(annotations));
+  }
+
+  @Override
+  public <U> Instance<U> select(TypeLiteral<U> subtype, Annotation... annotations) {
+    return container.select(subtype, concat(annotations));
+  }
+
+  private Annotation[] concat(Annotation... annotations) {
+    if (annotations.length == 0)
+      return qualifiers;
+    var all = Arrays.copyOf(qualifiers, qualifiers.length + annotations.length);
+    System.arraycopy(annotations, 0, all, qualifiers.length, annotations.length);
+    return all;
+  }
+
+  @Override
+  public Object get() {
+    throw unsatisfied();
+  }
+
+  @Override
+  public Handle<Object> getHandle() {
+    throw unsatisfied();
+  }
+
+  private UnsatisfiedResolutionException unsatisfied() {
+    return new UnsatisfiedResolutionException("Select the type of the bean with qualifiers "
+        + Arrays.toString(qualifiers) + " before getting it");
+  }
+
+  @Override
+  public Iterable<? extends Handle<Object>> handles() {
+    return List.of();
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    return Collections.emptyIterator();
+  }
+
+  @Override
+  public boolean isUnsatisfied() {
+    return true;
+  }
+
+  @Override
+  public boolean isAmbiguous() {
+    return false;
+  }
+
+  @Override
+  public void destroy(Object instance) {
+    container.destroy(instance);
+  }
+}
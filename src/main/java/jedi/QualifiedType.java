@@ -0,0 +1,70 @@
+package jedi;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A resolution key. Instances are interned by {@link QualifiedTypes}, so they compare by identity and their hash is
+ * computed once.
+ */
+final class QualifiedType<T> {
+  private final Class<T>        type;
+  private final Type            genericType;
+  private final long[]          qualifierIds;
+  private final Set<Annotation> qualifiers;
+  private final int             hash;
+
+  QualifiedType(Class<T> type, Type genericType, long[] qualifierIds, Set<Annotation> qualifiers) {
+    this.type = type;
+    this.genericType = genericType;
+    this.qualifierIds = qualifierIds;
+    this.qualifiers = qualifiers;
+    this.hash = 31 * genericType.hashCode() + Arrays.hashCode(qualifierIds);
+  }
+
+  Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * The type itself, or the parameterized type of a generic type.
+   */
+  Type getGenericType() {
+    return genericType;
+  }
+
+  Set<Annotation> getQualifiers() {
+    return qualifiers;
+  }
+
+  boolean hasQualifierIds(long ids) {
+    return qualifierIds.length == 1 && qualifierIds[0] == ids;
+  }
+
+  boolean hasQualifierIds(long[] ids) {
+    return Arrays.equals(qualifierIds, ids);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof QualifiedType))
+      return false;
+    var other = (QualifiedType<?>) obj;
+    return type == other.type && genericType.equals(other.genericType)
+        && Arrays.equals(qualifierIds, other.qualifierIds);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return genericType.getTypeName() + qualifiers;
+  }
+}
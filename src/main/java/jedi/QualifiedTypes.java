@@ -0,0 +1,136 @@
+package jedi;
+
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Default;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns the {@link QualifiedType} keys of a container.
+ * <p>
+ * Every distinct qualifier gets a bit the first time the container sees it, so a combination of qualifiers is a bit
+ * set, a single {@code long} for the first 64 qualifiers. Looking up the key of an already seen type and qualifiers
+ * allocates nothing, and an unqualified lookup doesn't even inspect the annotations.
+ */
+class QualifiedTypes {
+  private static final long[] UNQUALIFIED = { 0L };
+
+  private final Map<Annotation, Integer> qualifierIds      = new ConcurrentHashMap<>();
+  private final AtomicInteger            nextId            = new AtomicInteger();
+  private final Map<Type, Keys<?>>       parameterizedKeys = new ConcurrentHashMap<>();
+  private final ClassValue<Keys<?>>      keys              = new ClassValue<>() {
+    @Override
+    protected Keys<?> computeValue(Class<?> type) {
+      return new Keys<>(type);
+    }
+  };
+
+  @SuppressWarnings("unchecked")
+  <T> QualifiedType<T> get(Class<T> type, Annotation... annotations) {
+    return get((Keys<T>) keys.get(type), annotations);
+  }
+
+  /**
+   * The key of a parameterized type, interned by the type and its qualifiers like the keys of classes.
+   */
+  @SuppressWarnings("unchecked")
+  <T> QualifiedType<T> get(ParameterizedType type, Annotation... annotations) {
+    var typeKeys = parameterizedKeys.get(type);
+    if (typeKeys == null)
+      typeKeys = parameterizedKeys.computeIfAbsent(type, t -> new Keys<>((Class<?>) type.getRawType(), t));
+    return get((Keys<T>) typeKeys, annotations);
+  }
+
+  private <T> QualifiedType<T> get(Keys<T> typeKeys, Annotation... annotations) {
+    long ids = 0;
+    for (var annotation : annotations) {
+      if (!isExplicitQualifier(annotation.annotationType()))
+        continue;
+      var id = getId(annotation);
+      if (id >= Long.SIZE)
+        return typeKeys.get(getIds(annotations), annotations);
+      ids |= 1L << id;
+    }
+    return typeKeys.get(ids, annotations);
+  }
+
+  // @Any and @Default are implied by every key
+  private static boolean isExplicitQualifier(Class<? extends Annotation> type) {
+    return ReflectionsHelper.isQualifier(type) && type != Any.class && type != Default.class;
+  }
+
+  private int getId(Annotation qualifier) {
+    var id = qualifierIds.get(qualifier);
+    return id != null ? id : qualifierIds.computeIfAbsent(qualifier, q -> nextId.getAndIncrement());
+  }
+
+  private long[] getIds(Annotation... annotations) {
+    var ids = new long[1];
+    for (var annotation : annotations) {
+      if (!isExplicitQualifier(annotation.annotationType()))
+        continue;
+      var id = getId(annotation);
+      if (id / Long.SIZE >= ids.length)
+        ids = Arrays.copyOf(ids, id / Long.SIZE + 1);
+      ids[id / Long.SIZE] |= 1L << id;
+    }
+    return ids;
+  }
+
+  // The keys of a type, looked up without locking and copied on write, as each type has very few of them.
+  private static class Keys<T> {
+    private final    Class<T>           type;
+    private final    Type               genericType;
+    private final    QualifiedType<T>   unqualified;
+    private volatile QualifiedType<?>[] qualified = new QualifiedType<?>[0];
+
+    Keys(Class<T> type) {
+      this(type, type);
+    }
+
+    Keys(Class<T> type, Type genericType) {
+      this.type = type;
+      this.genericType = genericType;
+      this.unqualified = new QualifiedType<>(type, genericType, UNQUALIFIED, ReflectionsHelper.getQualifiers());
+    }
+
+    @SuppressWarnings("unchecked")
+    QualifiedType<T> get(long ids, Annotation... annotations) {
+      if (ids == 0)
+        return unqualified;
+      for (var key : qualified) {
+        if (key.hasQualifierIds(ids))
+          return (QualifiedType<T>) key;
+      }
+      return add(new long[] { ids }, annotations);
+    }
+
+    @SuppressWarnings("unchecked")
+    QualifiedType<T> get(long[] ids, Annotation... annotations) {
+      for (var key : qualified) {
+        if (key.hasQualifierIds(ids))
+          return (QualifiedType<T>) key;
+      }
+      return add(ids, annotations);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized QualifiedType<T> add(long[] ids, Annotation... annotations) {
+      for (var key : qualified) {
+        if (key.hasQualifierIds(ids))
+          return (QualifiedType<T>) key;
+      }
+      var key = new QualifiedType<>(type, genericType, ids, ReflectionsHelper.getQualifiers(annotations));
+      var keys = Arrays.copyOf(qualified, qualified.length + 1);
+      keys[keys.length - 1] = key;
+      qualified = keys;
+      return key;
+    }
+  }
+}
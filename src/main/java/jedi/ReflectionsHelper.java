@@ -1,24 +1,73 @@
 package jedi;
 
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.context.NormalScope;
 import jakarta.enterprise.inject.AmbiguousResolutionException;
 import jakarta.enterprise.inject.Any;
 import jakarta.enterprise.inject.Default;
 import jakarta.inject.Inject;
 import jakarta.inject.Qualifier;
+import jakarta.inject.Scope;
 import org.reflections.ReflectionsException;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ReflectionsHelper {
+  // Class metadata is computed once per class. ClassValue doesn't keep the classes reachable, so caching them here
+  // doesn't pin their class loaders.
+  private static final ClassValue<Boolean>                     DEFAULT_CONSTRUCTOR_ONLY = new ClassValue<>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      return computeHasDefaultConstructorOnly(type);
+    }
+  };
+  private static final ClassValue<Constructor<?>>              INJECTABLE_CONSTRUCTOR   = new ClassValue<>() {
+    @Override
+    protected Constructor<?> computeValue(Class<?> type) {
+      return computeInjectableConstructor(type);
+    }
+  };
+  private static final ClassValue<Set<Annotation>>             QUALIFIERS               = new ClassValue<>() {
+    @Override
+    protected Set<Annotation> computeValue(Class<?> type) {
+      return getQualifiers(type.getAnnotations());
+    }
+  };
+  private static final ClassValue<Boolean>                     QUALIFIER_TYPES          = new ClassValue<>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      return type.getAnnotation(Qualifier.class) != null;
+    }
+  };
+  private static final ClassValue<Class<? extends Annotation>> SCOPES                   = new ClassValue<>() {
+    @Override
+    protected Class<? extends Annotation> computeValue(Class<?> type) {
+      return getScope(type.getAnnotations());
+    }
+  };
+  private static final ClassValue<Set<Type>>                   TYPE_CLOSURES            = new ClassValue<>() {
+    @Override
+    protected Set<Type> computeValue(Class<?> type) {
+      return computeTypeClosure(type);
+    }
+  };
 
   private ReflectionsHelper() {}
 
   public static boolean hasDefaultConstructorOnly(Class<?> subtype) {
+    return DEFAULT_CONSTRUCTOR_ONLY.get(subtype);
+  }
+
+  private static boolean computeHasDefaultConstructorOnly(Class<?> subtype) {
     var constructors = subtype.getConstructors();
     if (constructors.length == 0)
       return true;
@@ -40,8 +89,12 @@ public class ReflectionsHelper {
     return aClass.isInterface() || Modifier.isAbstract(aClass.getModifiers());
   }
 
-  @SuppressWarnings("unchecked")
   public static <T> Constructor<T> getInjectableConstructor(Class<T> subtype) {
+    return cast(INJECTABLE_CONSTRUCTOR.get(subtype));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Constructor<T> computeInjectableConstructor(Class<T> subtype) {
     if (hasDefaultConstructorOnly(subtype))
       return cast(subtype.getDeclaredConstructors()[0]);
     var constructors = (Constructor<T>[]) subtype.getConstructors();
@@ -67,7 +120,7 @@ public class ReflectionsHelper {
   }
 
   public static <T> Set<Annotation> getQualifiers(Class<T> clazz) {
-    return getQualifiers(clazz.getAnnotations());
+    return QUALIFIERS.get(clazz);
   }
 
   public static <T> Set<Annotation> getQualifiers(Method method) {
@@ -76,11 +129,101 @@ public class ReflectionsHelper {
 
   public static Set<Annotation> getQualifiers(Annotation... annotations) {
     var qualifiers = Arrays.stream(annotations)
-        .filter(a -> a.annotationType().getAnnotation(Qualifier.class) != null)
+        .filter(a -> isQualifier(a.annotationType()))
         .collect(Collectors.toSet());
     qualifiers.add(Any.Literal.INSTANCE);
     qualifiers.add(Default.Literal.INSTANCE);
-    return qualifiers;
+    return Collections.unmodifiableSet(qualifiers);
+  }
+
+  public static boolean isQualifier(Class<? extends Annotation> annotationType) {
+    return QUALIFIER_TYPES.get(annotationType);
+  }
+
+  /**
+   * The scope annotation of the given class, {@link Dependent} when it has none.
+   */
+  public static Class<? extends Annotation> getScope(Class<?> clazz) {
+    return SCOPES.get(clazz);
+  }
+
+  public static boolean isNormalScope(Class<? extends Annotation> scope) {
+    return scope.isAnnotationPresent(NormalScope.class);
+  }
+
+  public static Class<? extends Annotation> getScope(Method method) {
+    return getScope(method.getAnnotations());
+  }
+
+  private static Class<? extends Annotation> getScope(Annotation... annotations) {
+    return Arrays.stream(annotations)
+        .map(Annotation::annotationType)
+        .filter(a -> a.isAnnotationPresent(Scope.class) || a.isAnnotationPresent(NormalScope.class))
+        .findFirst()
+        .orElse(Dependent.class);
+  }
+
+  /**
+   * The given type and all its super types, with the type arguments of the generic ones resolved as far as the
+   * given type binds them: {@code class UserRepository implements Repository<User>} has the type
+   * {@code Repository<User>}. Generic types are only present in their parameterized form.
+   */
+  public static Set<Type> getTypeClosure(Type type) {
+    return type instanceof Class ? TYPE_CLOSURES.get((Class<?>) type) : computeTypeClosure(type);
+  }
+
+  private static Set<Type> computeTypeClosure(Type type) {
+    var types = new LinkedHashSet<Type>();
+    collectTypes(type, Map.of(), types);
+    types.add(Object.class);
+    return Collections.unmodifiableSet(types);
+  }
+
+  private static void collectTypes(Type type, Map<TypeVariable<?>, Type> bindings, Set<Type> types) {
+    Class<?> rawType;
+    var superBindings = Map.<TypeVariable<?>, Type>of();
+    if (type instanceof Class) {
+      rawType = (Class<?>) type;
+      if (!types.add(rawType))
+        return;
+    } else if (type instanceof ParameterizedType) {
+      var resolved = (ParameterizedType) resolve(type, bindings);
+      if (!types.add(resolved))
+        return;
+      rawType = (Class<?>) resolved.getRawType();
+      var parameters = rawType.getTypeParameters();
+      var arguments = resolved.getActualTypeArguments();
+      var map = new HashMap<TypeVariable<?>, Type>();
+      for (int i = 0; i < parameters.length; i++)
+        map.put(parameters[i], arguments[i]);
+      superBindings = map;
+    } else {
+      return;
+    }
+    var superclass = rawType.getGenericSuperclass();
+    if (superclass != null)
+      collectTypes(superclass, superBindings, types);
+    for (var superInterface : rawType.getGenericInterfaces())
+      collectTypes(superInterface, superBindings, types);
+  }
+
+  private static Type resolve(Type type, Map<TypeVariable<?>, Type> bindings) {
+    if (type instanceof TypeVariable)
+      return bindings.getOrDefault(type, type);
+    if (type instanceof ParameterizedType) {
+      var parameterized = (ParameterizedType) type;
+      var arguments = parameterized.getActualTypeArguments();
+      for (int i = 0; i < arguments.length; i++)
+        arguments[i] = resolve(arguments[i], bindings);
+      var owner = parameterized.getOwnerType();
+      return new ParameterizedTypeImpl((Class<?>) parameterized.getRawType(), arguments,
+          owner != null ? resolve(owner, bindings) : null);
+    }
+    if (type instanceof GenericArrayType) {
+      var component = resolve(((GenericArrayType) type).getGenericComponentType(), bindings);
+      return component instanceof Class ? Array.newInstance((Class<?>) component, 0).getClass() : type;
+    }
+    return type;
   }
 
   @SuppressWarnings("unchecked")
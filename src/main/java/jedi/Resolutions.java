@@ -0,0 +1,101 @@
+package jedi;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Coordinates the resolutions in flight, so that each key is resolved once however many threads ask for it, and
+ * detects circular dependencies along each resolution chain, including chains that wait on each other across threads.
+ */
+class Resolutions<K, V> {
+  private final Map<K, V>                       resolved;
+  private final Map<K, Resolution<K, V>>        inFlight = new ConcurrentHashMap<>();
+  private final ThreadLocal<Resolution<K, V>>   current  = new ThreadLocal<>();
+  private final Function<K, RuntimeException>   circularDependency;
+
+  Resolutions(Map<K, V> resolved, Function<K, RuntimeException> circularDependency) {
+    this.resolved = resolved;
+    this.circularDependency = circularDependency;
+  }
+
+  V resolve(K key, Function<K, V> resolver) {
+    var parent = current.get();
+    var resolution = new Resolution<>(key, parent);
+    var other = inFlight.putIfAbsent(key, resolution);
+    if (other != null)
+      return await(other, parent);
+    try {
+      // another thread may have finished this resolution since the caller missed the cache
+      var value = resolved.get(key);
+      if (value == null) {
+        current.set(resolution);
+        try {
+          value = resolver.apply(key);
+        } finally {
+          current.set(parent);
+        }
+        resolved.put(key, value);
+      }
+      resolution.future.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      resolution.future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, resolution);
+    }
+  }
+
+  private V await(Resolution<K, V> other, Resolution<K, V> parent) {
+    if (parent == null)
+      return join(other);
+    var chain = parent.chain;
+    if (other.chain == chain)
+      throw circularDependency.apply(other.key);
+    chain.waitingFor = other;
+    try {
+      // Follow the chains waiting on each other, getting back to this one means none of them can ever finish.
+      var steps = inFlight.size();
+      for (var c = other.chain; c != null && steps-- >= 0; ) {
+        if (c == chain)
+          throw circularDependency.apply(other.key);
+        var waitingFor = c.waitingFor;
+        c = waitingFor != null ? waitingFor.chain : null;
+      }
+      return join(other);
+    } finally {
+      chain.waitingFor = null;
+    }
+  }
+
+  private V join(Resolution<K, V> resolution) {
+    try {
+      return resolution.future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+      if (e.getCause() instanceof Error)
+        throw (Error) e.getCause();
+      throw e;
+    }
+  }
+
+  private static class Resolution<K, V> {
+    private final K                    key;
+    private final Chain<K, V>          chain;
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+
+    Resolution(K key, Resolution<K, V> parent) {
+      this.key = key;
+      this.chain = parent != null ? parent.chain : new Chain<>();
+    }
+  }
+
+  // The nested resolutions started by a single top-level select.
+  private static class Chain<K, V> {
+    private volatile Resolution<K, V> waitingFor;
+  }
+}
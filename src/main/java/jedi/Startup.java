@@ -0,0 +1,21 @@
+package jedi;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Creates the instance of a {@code @Singleton} or {@code @ApplicationScoped} bean, or of a producer method of such a
+ * scope, when the container is bootstrapped rather than when it is first used.
+ * <p>
+ * The startup beans are created level by level, after the ones they depend on, and the ones of a level concurrently.
+ * See {@link JeDI#bootstrap(java.util.concurrent.Executor)}.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ TYPE, METHOD })
+public @interface Startup {}
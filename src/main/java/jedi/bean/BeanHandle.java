@@ -0,0 +1,62 @@
+package jedi.bean;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.Bean;
+
+/**
+ * A handle on an instance of a bean, created the first time it is asked for.
+ * <p>
+ * Closing the handle destroys a {@code @Dependent} instance and gives a {@link jedi.context.Pooled} one back to its
+ * pool. Destroying it destroys the instance whatever its scope.
+ */
+final class BeanHandle<T> implements Instance.Handle<T> {
+  private final BeanInstance<T> instance;
+  private final Bean<T>         bean;
+  private T                     value;
+  private boolean               done;
+
+  BeanHandle(BeanInstance<T> instance, Bean<T> bean) {
+    this.instance = instance;
+    this.bean = bean;
+  }
+
+  @Override
+  public T get() {
+    if (done)
+      throw new IllegalStateException("The handle of " + bean.getBeanClass().getName() + " was closed");
+    if (value == null)
+      value = instance.create(bean);
+    return value;
+  }
+
+  @Override
+  public Bean<T> getBean() {
+    return bean;
+  }
+
+  @Override
+  public void destroy() {
+    if (done)
+      return;
+    done = true;
+    if (value == null)
+      return;
+    if (bean instanceof ScopedBean)
+      ((ScopedBean<T>) bean).destroyInstance(value);
+    else
+      instance.destroy(value, bean);
+  }
+
+  @Override
+  public void close() {
+    if (done)
+      return;
+    if (bean instanceof ScopedBean) {
+      done = true;
+      if (value != null)
+        ((ScopedBean<T>) bean).release(value);
+    } else {
+      destroy();
+    }
+  }
+}
@@ -5,29 +5,61 @@ import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.inject.UnsatisfiedResolutionException;
 import jakarta.enterprise.inject.spi.Bean;
 import jakarta.enterprise.util.TypeLiteral;
+import jedi.ReflectionsHelper;
+import jedi.context.CreationalContextImpl;
+import jedi.context.DependentInstances;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static jedi.ReflectionsHelper.cast;
 
 public class BeanInstance<T> implements Instance<T> {
-  private final Set<Bean<T>>    allBeans;
-  private final Type            superType;
-  private final Set<Annotation> qualifiers;
-  private       Bean<T>         bean;
+  private final    Set<Bean<T>>                 allBeans;
+  private final    Type                         superType;
+  private final    Set<Annotation>              qualifiers;
+  private final    DependentInstances           dependents;
+  private final    Map<Object, BeanInstance<?>> selections = new ConcurrentHashMap<>();
+  private          Bean<T>                      bean;
+  private volatile Bean<T>[]                    qualifiedBeans;
 
   public BeanInstance(Set<Bean<T>> allBeans) {
     this(allBeans, null, Set.of());
   }
 
   public BeanInstance(Set<Bean<T>> allBeans, Type superType, Set<Annotation> qualifiers) {
+    this(allBeans, superType, qualifiers, null);
+  }
+
+  /**
+   * @param dependents where the {@code @Dependent} instances with something to destroy are kept until they are
+   *                   destroyed, null not to keep them
+   */
+  public BeanInstance(Set<Bean<T>> allBeans, Type superType, Set<Annotation> qualifiers,
+      DependentInstances dependents) {
     this.allBeans = allBeans;
     if (allBeans.size() == 1)
       bean = allBeans.iterator().next();
     this.superType = superType == null ? getSuperType() : superType;
     this.qualifiers = qualifiers;
+    this.dependents = dependents;
+  }
+
+  /**
+   * The same beans, keeping the {@code @Dependent} instances they hand out in the given dependents.
+   */
+  public BeanInstance<T> withDependents(DependentInstances dependents) {
+    return new BeanInstance<>(allBeans, superType, qualifiers, dependents);
   }
 
   private Type getSuperType() {
@@ -36,29 +68,107 @@ public class BeanInstance<T> implements Instance<T> {
     return allBeans.iterator().next().getBeanClass();
   }
 
+  /**
+   * The beans of this instance that also have the given qualifiers. The selection is made in memory from the beans
+   * already resolved, and cached, so selecting the same qualifiers again is a map lookup.
+   */
   @Override
   public Instance<T> select(Annotation... annotations) {
-    return null;
+    if (annotations.length == 0)
+      return this;
+    var key = annotations.length == 1 ? annotations[0] : selectionKey(annotations);
+    var child = selections.get(key);
+    if (child == null)
+      child = selections.computeIfAbsent(key, k -> narrow(null, annotations));
+    return cast(child);
+  }
+
+  // The qualifiers as a set, so that their order and repetitions make no difference, a single one standing for itself
+  // as in the single annotation path.
+  private static Object selectionKey(Annotation... annotations) {
+    var key = new HashSet<Annotation>(annotations.length);
+    Collections.addAll(key, annotations);
+    return key.size() == 1 ? annotations[0] : key;
   }
 
+  /**
+   * The beans of this instance assignable to the given subtype, with the given qualifiers, selected and cached like
+   * {@link #select(Annotation...)}.
+   */
   @Override
-  public <U extends T> Instance<U> select(Class<U> aClass, Annotation... annotations) {
-    return null;
+  public <U extends T> Instance<U> select(Class<U> subtype, Annotation... annotations) {
+    var child = selections.get(subtype);
+    if (child == null)
+      child = selections.computeIfAbsent(subtype, k -> narrow(subtype));
+    return ReflectionsHelper.<Instance<U>>cast(child).select(annotations);
   }
 
+  /**
+   * The beans of this instance having the given parameterized type among their types, selected and cached like
+   * {@link #select(Annotation...)}.
+   */
   @Override
   public <U extends T> Instance<U> select(TypeLiteral<U> typeLiteral, Annotation... annotations) {
-    return null;
+    var type = typeLiteral.getType();
+    if (type instanceof Class)
+      return select(ReflectionsHelper.<Class<U>>cast(type), annotations);
+    var child = selections.get(type);
+    if (child == null)
+      child = selections.computeIfAbsent(type, k -> narrow(type));
+    return ReflectionsHelper.<Instance<U>>cast(child).select(annotations);
+  }
+
+  // subtype is null, a class the bean classes must be assignable to, or a type the beans must have
+  private BeanInstance<?> narrow(Type subtype, Annotation... annotations) {
+    var added = new HashSet<Annotation>();
+    for (var annotation : annotations) {
+      if (!ReflectionsHelper.isQualifier(annotation.annotationType()))
+        throw new IllegalArgumentException(annotation + " is not a qualifier");
+      added.add(annotation);
+    }
+    var beans = allBeans.stream()
+        .filter(b -> subtype == null || (subtype instanceof Class
+            ? ((Class<?>) subtype).isAssignableFrom(b.getBeanClass())
+            : b.getTypes().contains(subtype)))
+        .filter(b -> b.getQualifiers().containsAll(added))
+        .collect(Collectors.toSet());
+    var combined = new HashSet<>(qualifiers);
+    combined.addAll(added);
+    return new BeanInstance<>(beans, subtype != null ? subtype : superType, Set.copyOf(combined), dependents);
   }
 
   @Override
   public Handle<T> getHandle() {
-    return null;
+    return new BeanHandle<>(this, findBean());
   }
 
+  /**
+   * The handles of every bean matching the qualifiers, each instance being created when its handle is first asked for
+   * it.
+   */
   @Override
   public Iterable<? extends Handle<T>> handles() {
-    return null;
+    return () -> new Iterator<>() {
+      private final Bean<T>[] beans = getQualifiedBeans();
+      private       int       next;
+
+      @Override
+      public boolean hasNext() {
+        return next < beans.length;
+      }
+
+      @Override
+      public Handle<T> next() {
+        if (next == beans.length)
+          throw new NoSuchElementException();
+        return new BeanHandle<>(BeanInstance.this, beans[next++]);
+      }
+    };
+  }
+
+  @Override
+  public Stream<? extends Handle<T>> handlesStream() {
+    return StreamSupport.stream(new BeanSpliterator<>(getQualifiedBeans(), b -> new BeanHandle<>(this, b)), false);
   }
 
   @Override
@@ -73,20 +183,97 @@ public class BeanInstance<T> implements Instance<T> {
 
   @Override
   public void destroy(T t) {
-    // do nothing
+    destroy(t, null);
   }
 
+  // b is the bean the instance comes from, null to find it among the beans of this instance
+  void destroy(T t, Bean<T> b) {
+    if (dependents != null && dependents.destroy(t))
+      return;
+    if (b == null)
+      b = beanOf(t);
+    if (b instanceof ScopedBean) {
+      var scoped = (ScopedBean<T>) b;
+      if (!scoped.release(t))
+        scoped.destroyInstance(t);
+    } else if (dependents == null)
+      b.destroy(t, null);
+  }
+
+  // The bean an instance comes from, when this instance has several: the one whose pool leased it, or else the one of
+  // its class.
+  private Bean<T> beanOf(T t) {
+    if (bean != null)
+      return bean;
+    var beans = getQualifiedBeans();
+    for (var b : beans)
+      if (b instanceof ScopedBean && ((ScopedBean<T>) b).isLeased(t))
+        return b;
+    for (var b : beans)
+      if (b.getBeanClass() == t.getClass())
+        return b;
+    return findBean();
+  }
+
+  /**
+   * Creates an instance of every bean matching the qualifiers, one at a time as the iteration goes.
+   */
   @Override
   public Iterator<T> iterator() {
-    return null;
+    return new Iterator<>() {
+      private final Bean<T>[] beans = getQualifiedBeans();
+      private       int       next;
+
+      @Override
+      public boolean hasNext() {
+        return next < beans.length;
+      }
+
+      @Override
+      public T next() {
+        if (next == beans.length)
+          throw new NoSuchElementException();
+        return create(beans[next++]);
+      }
+    };
+  }
+
+  /**
+   * Like {@link #iterator()}, with a sized spliterator that splits evenly, so that a parallel stream creates the
+   * instances in parallel.
+   */
+  @Override
+  public Stream<T> stream() {
+    return StreamSupport.stream(new BeanSpliterator<>(getQualifiedBeans(), this::create), false);
   }
 
   @Override
   public T get() {
-    if (bean != null)
-      return bean.create(null);
-    bean = getQualifiedBean(qualifiers);
-    return bean.create(null);
+    var b = bean;
+    if (b == null)
+      bean = b = getQualifiedBean(qualifiers);
+    return create(b);
+  }
+
+  T create(Bean<T> b) {
+    if (!CreationalContextImpl.isDependent(b))
+      return b.create(null);
+    var creationalContext = new CreationalContextImpl<T>();
+    var instance = b.create(creationalContext);
+    if (dependents != null && (creationalContext.hasDependents() || CreationalContextImpl.hasDisposal(b)))
+      dependents.add(b, instance, creationalContext);
+    return instance;
+  }
+
+  private Bean<T>[] getQualifiedBeans() {
+    var beans = qualifiedBeans;
+    if (beans == null) {
+      Bean<T>[] all = cast(allBeans.stream()
+          .filter(b -> b.getQualifiers().containsAll(qualifiers))
+          .toArray(Bean<?>[]::new));
+      qualifiedBeans = beans = all;
+    }
+    return beans;
   }
 
   public Bean<T> findBean() {
@@ -0,0 +1,63 @@
+package jedi.bean;
+
+import jakarta.enterprise.inject.spi.Bean;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Maps a range of beans to what is made of them, their instances or handles, as they are traversed. It splits in
+ * halves and knows its exact size, so a parallel stream of hundreds of beans spreads their creation evenly.
+ */
+final class BeanSpliterator<T, R> implements Spliterator<R> {
+  private final Bean<T>[]            beans;
+  private final Function<Bean<T>, R> mapper;
+  private final int                  end;
+  private       int                  index;
+
+  BeanSpliterator(Bean<T>[] beans, Function<Bean<T>, R> mapper) {
+    this(beans, mapper, 0, beans.length);
+  }
+
+  private BeanSpliterator(Bean<T>[] beans, Function<Bean<T>, R> mapper, int index, int end) {
+    this.beans = beans;
+    this.mapper = mapper;
+    this.index = index;
+    this.end = end;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super R> action) {
+    if (index >= end)
+      return false;
+    action.accept(mapper.apply(beans[index++]));
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super R> action) {
+    for (; index < end; index++)
+      action.accept(mapper.apply(beans[index]));
+  }
+
+  @Override
+  public Spliterator<R> trySplit() {
+    var middle = (index + end) >>> 1;
+    if (middle <= index)
+      return null;
+    var prefix = new BeanSpliterator<>(beans, mapper, index, middle);
+    index = middle;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return end - index;
+  }
+
+  @Override
+  public int characteristics() {
+    return SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+  }
+}
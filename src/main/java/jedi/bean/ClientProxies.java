@@ -0,0 +1,219 @@
+package jedi.bean;
+
+import jakarta.enterprise.inject.UnproxyableResolutionException;
+import jedi.GeneratedClasses;
+import javassist.bytecode.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static java.lang.invoke.MethodType.methodType;
+import static jedi.ReflectionsHelper.cast;
+
+/**
+ * Generates the client proxies of normal-scoped beans. A proxy forwards every call to
+ * {@link ContextualReference#get()}, so a bean injected into a longer-lived one always reaches the instance of the
+ * current context.
+ * <p>
+ * The proxy of a class is a subclass of it, which requires the class not to be final and to have a non-private
+ * no-args constructor. Its final methods, and the protected ones inherited from another package, are not forwarded.
+ * Other classes are proxied through their interfaces. Proxy classes are generated once per bean class, the first
+ * time a proxy is created.
+ */
+public final class ClientProxies {
+  private static final String                   SUFFIX         = "$$JeDIProxy";
+  private static final String                   REFERENCE      = ContextualReference.class.getName();
+  private static final String                   REFERENCE_DESC = "L" + REFERENCE.replace('.', '/') + ";";
+  private static final Set<String>              OBJECT_METHODS = Set.of("equals", "hashCode", "toString");
+  private static final ClassValue<MethodHandle> CONSTRUCTORS   = new ClassValue<>() {
+    @Override
+    protected MethodHandle computeValue(Class<?> type) {
+      try {
+        return generate(type);
+      } catch (UnproxyableResolutionException e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UnproxyableResolutionException("Unable to generate the client proxy of " + type.getName(), e);
+      }
+    }
+  };
+
+  private ClientProxies() {}
+
+  public static <T> T create(Class<?> beanClass, ContextualReference<T> reference) {
+    try {
+      return cast(CONSTRUCTORS.get(beanClass).invoke(reference));
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UnproxyableResolutionException("Unable to create the client proxy of " + beanClass.getName(), e);
+    }
+  }
+
+  private static MethodHandle generate(Class<?> type) throws Throwable {
+    var subclass = isSubclassable(type);
+    var interfaces = subclass ? List.<Class<?>>of() : getInterfaces(type);
+    if (!subclass && interfaces.isEmpty())
+      throw new UnproxyableResolutionException("Bean class " + type.getName() + " can't be proxied: it is final or "
+          + "has no non-private no-args constructor, and implements no interface");
+    var superclass = subclass ? type : Object.class;
+    var file = new ClassFile(false, GeneratedClasses.name(type, SUFFIX), superclass.getName());
+    file.setMajorVersion(ClassFile.JAVA_8);
+    file.setAccessFlags(AccessFlag.PUBLIC | AccessFlag.FINAL | AccessFlag.SUPER);
+    file.setInterfaces(interfaces.stream().map(Class::getName).toArray(String[]::new));
+    var reference = new FieldInfo(file.getConstPool(), "reference", REFERENCE_DESC);
+    reference.setAccessFlags(AccessFlag.PRIVATE | AccessFlag.FINAL);
+    file.addField(reference);
+    addConstructor(file, superclass);
+    for (var method : getMethods(type, subclass, interfaces))
+      addMethod(file, method, subclass ? type : method.getDeclaringClass());
+
+    var lookup = GeneratedClasses.define(type, file);
+    return lookup.findConstructor(lookup.lookupClass(), methodType(void.class, ContextualReference.class))
+        .asType(methodType(Object.class, ContextualReference.class));
+  }
+
+  private static boolean isSubclassable(Class<?> type) {
+    if (Modifier.isFinal(type.getModifiers()))
+      return false;
+    try {
+      return !Modifier.isPrivate(type.getDeclaredConstructor().getModifiers());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  // The interfaces the proxy can implement from the bean's package.
+  private static List<Class<?>> getInterfaces(Class<?> type) {
+    var interfaces = new LinkedHashSet<Class<?>>();
+    for (var c = type; c != null; c = c.getSuperclass())
+      for (var i : c.getInterfaces())
+        if (Modifier.isPublic(i.getModifiers()) || isSamePackage(i, type))
+          interfaces.add(i);
+    return new ArrayList<>(interfaces);
+  }
+
+  private static Collection<Method> getMethods(Class<?> type, boolean subclass, List<Class<?>> interfaces) {
+    var methods = new LinkedHashMap<String, Method>();
+    if (subclass) {
+      for (var c = type; c != null; c = c.getSuperclass())
+        for (var m : c.getDeclaredMethods())
+          add(methods, m, isForwardable(m, type));
+    } else {
+      for (var m : Object.class.getMethods())
+        if (OBJECT_METHODS.contains(m.getName()))
+          methods.put(signature(m), m);
+    }
+    var queue = new ArrayDeque<Class<?>>(subclass ? getInterfaces(type) : interfaces);
+    while (!queue.isEmpty()) {
+      var i = queue.poll();
+      for (var m : i.getMethods())
+        add(methods, m, !Modifier.isStatic(m.getModifiers()));
+      queue.addAll(Arrays.asList(i.getInterfaces()));
+    }
+    methods.values().removeIf(Objects::isNull);
+    return methods.values();
+  }
+
+  // The most specific declaration wins, a final one (kept as null) included.
+  private static void add(Map<String, Method> methods, Method method, boolean forwardable) {
+    var signature = signature(method);
+    if (!methods.containsKey(signature))
+      methods.put(signature, forwardable ? method : null);
+  }
+
+  private static boolean isForwardable(Method method, Class<?> type) {
+    var modifiers = method.getModifiers();
+    if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers) || Modifier.isFinal(modifiers)
+        || method.isSynthetic())
+      return false;
+    return Modifier.isPublic(modifiers) || isSamePackage(method.getDeclaringClass(), type);
+  }
+
+  private static boolean isSamePackage(Class<?> a, Class<?> b) {
+    return a.getClassLoader() == b.getClassLoader() && a.getPackageName().equals(b.getPackageName());
+  }
+
+  private static String signature(Method method) {
+    return method.getName() + MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+        .toMethodDescriptorString();
+  }
+
+  // <init>(ContextualReference reference) { this.reference = reference; super(); }
+  private static void addConstructor(ClassFile file, Class<?> superclass) throws DuplicateMemberException {
+    var code = new Bytecode(file.getConstPool(), 0, 2);
+    code.addAload(0);
+    code.addAload(1);
+    code.addPutfield(file.getName(), "reference", REFERENCE_DESC);
+    code.addAload(0);
+    code.addInvokespecial(superclass.getName(), MethodInfo.nameInit, "()V");
+    code.addReturn(null);
+    var init = new MethodInfo(file.getConstPool(), MethodInfo.nameInit, "(" + REFERENCE_DESC + ")V");
+    init.setAccessFlags(AccessFlag.PUBLIC);
+    init.setCodeAttribute(code.toCodeAttribute());
+    file.addMethod(init);
+  }
+
+  // m(args) { return ((Owner) reference.get()).m(args); }
+  private static void addMethod(ClassFile file, Method method, Class<?> owner) throws DuplicateMemberException {
+    var descriptor = MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+        .toMethodDescriptorString();
+    var parameters = method.getParameterTypes();
+    var slots = 1;
+    for (var parameter : parameters)
+      slots += parameter == long.class || parameter == double.class ? 2 : 1;
+
+    var code = new Bytecode(file.getConstPool(), 0, slots);
+    code.addAload(0);
+    code.addGetfield(file.getName(), "reference", REFERENCE_DESC);
+    code.addInvokevirtual(REFERENCE, "get", "()Ljava/lang/Object;");
+    var target = method.getDeclaringClass() == Object.class ? Object.class : owner;
+    code.addCheckcast(target.getName());
+    var slot = 1;
+    for (var parameter : parameters)
+      slot += load(code, parameter, slot);
+    if (target.isInterface())
+      code.addInvokeinterface(target.getName(), method.getName(), descriptor, slots);
+    else
+      code.addInvokevirtual(target.getName(), method.getName(), descriptor);
+    code.addOpcode(returnOpcode(method.getReturnType()));
+
+    var proxyMethod = new MethodInfo(file.getConstPool(), method.getName(), descriptor);
+    proxyMethod.setAccessFlags(Modifier.isPublic(method.getModifiers()) ? AccessFlag.PUBLIC
+        : Modifier.isProtected(method.getModifiers()) ? AccessFlag.PROTECTED : 0);
+    proxyMethod.setCodeAttribute(code.toCodeAttribute());
+    file.addMethod(proxyMethod);
+  }
+
+  private static int load(Bytecode code, Class<?> type, int slot) {
+    if (type == long.class) {
+      code.addLload(slot);
+      return 2;
+    } else if (type == double.class) {
+      code.addDload(slot);
+      return 2;
+    } else if (type == float.class) {
+      code.addFload(slot);
+    } else if (type.isPrimitive()) {
+      code.addIload(slot);
+    } else {
+      code.addAload(slot);
+    }
+    return 1;
+  }
+
+  private static int returnOpcode(Class<?> type) {
+    if (type == void.class)
+      return Opcode.RETURN;
+    if (type == long.class)
+      return Opcode.LRETURN;
+    if (type == double.class)
+      return Opcode.DRETURN;
+    if (type == float.class)
+      return Opcode.FRETURN;
+    return type.isPrimitive() ? Opcode.IRETURN : Opcode.ARETURN;
+  }
+}
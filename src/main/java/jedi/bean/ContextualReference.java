@@ -0,0 +1,26 @@
+package jedi.bean;
+
+import jakarta.enterprise.context.spi.Context;
+import jakarta.enterprise.inject.spi.Bean;
+import jedi.context.CreationalContextImpl;
+
+/**
+ * What a client proxy delegates to: the current instance of a bean in the context of its scope.
+ */
+public final class ContextualReference<T> {
+  private final Bean<T> bean;
+  private final Context context;
+
+  public ContextualReference(Bean<T> bean, Context context) {
+    this.bean = bean;
+    this.context = context;
+  }
+
+  /**
+   * The instance of the context, created with a creational context of its own when there is none yet.
+   */
+  public T get() {
+    var instance = context.get(bean);
+    return instance != null ? instance : context.get(bean, new CreationalContextImpl<>());
+  }
+}
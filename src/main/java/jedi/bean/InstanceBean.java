@@ -0,0 +1,89 @@
+package jedi.bean;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.Default;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.InjectionPoint;
+import jakarta.inject.Provider;
+import jedi.context.DependentInstances;
+import jedi.injection.producer.Disposable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The bean of an {@link Instance} or {@link Provider} injection point. It creates a {@link LazyInstance}, so
+ * injecting it costs nothing until its {@code get()} is called.
+ * <p>
+ * Each bean the instance is injected into gets its own, which keeps the {@code @Dependent} instances it hands out, so
+ * that they are destroyed with that bean at the latest.
+ */
+public class InstanceBean<T> implements Bean<Instance<T>>, Disposable {
+  private final Supplier<Instance<T>> selection;
+
+  /**
+   * @param selection selects the beans of the injection point from the container, called on first use
+   */
+  public InstanceBean(Supplier<Instance<T>> selection) {
+    this.selection = selection;
+  }
+
+  @Override
+  public Instance<T> create(CreationalContext<Instance<T>> creationalContext) {
+    return new LazyInstance<>(selection, new DependentInstances());
+  }
+
+  @Override
+  public void destroy(Instance<T> instance, CreationalContext<Instance<T>> creationalContext) {
+    ((LazyInstance<T>) instance).destroyDependents();
+  }
+
+  @Override
+  public boolean hasDisposal() {
+    return true;
+  }
+
+  @Override
+  public Class<?> getBeanClass() {
+    return Instance.class;
+  }
+
+  @Override
+  public Set<InjectionPoint> getInjectionPoints() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<Type> getTypes() {
+    return Set.of(Instance.class, Provider.class, Object.class);
+  }
+
+  @Override
+  public Set<Annotation> getQualifiers() {
+    return Set.of(Default.Literal.INSTANCE);
+  }
+
+  @Override
+  public Class<? extends Annotation> getScope() {
+    return Dependent.class;
+  }
+
+  @Override
+  public String getName() {
+    return null;
+  }
+
+  @Override
+  public Set<Class<? extends Annotation>> getStereotypes() {
+    return Set.of();
+  }
+
+  @Override
+  public boolean isAlternative() {
+    return false;
+  }
+}
@@ -0,0 +1,102 @@
+package jedi.bean;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.util.TypeLiteral;
+import jedi.context.DependentInstances;
+
+import java.lang.annotation.Annotation;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * An {@link Instance} that selects its beans from the container the first time it is used, so that neither the
+ * resolution nor the creation of the beans happen while wiring the bean it is injected into. That also lets two beans
+ * depend on each other as long as one of them does it through an {@code Instance} or a {@code Provider}.
+ */
+public class LazyInstance<T> implements Instance<T> {
+  private final Supplier<Instance<T>> selection;
+  private final DependentInstances    dependents;
+  private volatile Instance<T>        delegate;
+
+  public LazyInstance(Supplier<Instance<T>> selection) {
+    this(selection, null);
+  }
+
+  /**
+   * @param dependents where the {@code @Dependent} instances it hands out are kept until they are destroyed, null to
+   *                   keep them where the selected instance does
+   */
+  public LazyInstance(Supplier<Instance<T>> selection, DependentInstances dependents) {
+    this.selection = selection;
+    this.dependents = dependents;
+  }
+
+  private Instance<T> delegate() {
+    var d = delegate;
+    if (d == null) {
+      d = selection.get();
+      if (dependents != null && d instanceof BeanInstance)
+        d = ((BeanInstance<T>) d).withDependents(dependents);
+      delegate = d;
+    }
+    return d;
+  }
+
+  /**
+   * Destroys the {@code @Dependent} instances it handed out that were not destroyed yet.
+   */
+  public void destroyDependents() {
+    if (dependents != null)
+      dependents.destroyAll();
+  }
+
+  @Override
+  public T get() {
+    return delegate().get();
+  }
+
+  @Override
+  public Instance<T> select(Annotation... annotations) {
+    return delegate().select(annotations);
+  }
+
+  @Override
+  public <U extends T> Instance<U> select(Class<U> subtype, Annotation... annotations) {
+    return delegate().select(subtype, annotations);
+  }
+
+  @Override
+  public <U extends T> Instance<U> select(TypeLiteral<U> subtype, Annotation... annotations) {
+    return delegate().select(subtype, annotations);
+  }
+
+  @Override
+  public boolean isUnsatisfied() {
+    return delegate().isUnsatisfied();
+  }
+
+  @Override
+  public boolean isAmbiguous() {
+    return delegate().isAmbiguous();
+  }
+
+  @Override
+  public void destroy(T instance) {
+    delegate().destroy(instance);
+  }
+
+  @Override
+  public Handle<T> getHandle() {
+    return delegate().getHandle();
+  }
+
+  @Override
+  public Iterable<? extends Handle<T>> handles() {
+    return delegate().handles();
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return delegate().iterator();
+  }
+}
@@ -5,20 +5,51 @@ import jakarta.enterprise.inject.spi.Bean;
 import jakarta.enterprise.inject.spi.InjectionPoint;
 import jakarta.enterprise.inject.spi.Producer;
 import jedi.ReflectionsHelper;
+import jedi.injection.producer.Disposable;
+import jedi.injection.producer.MethodProducer;
+import jedi.jfr.CreationEvent;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
-public class ManagedBean<T> implements Bean<T> {
-  private final Class<T>        subtype;
-  private final Producer<T>     producer;
-  private final Set<Annotation> qualifiers;
+public class ManagedBean<T> implements Bean<T>, Disposable {
+  private final Class<T>                    subtype;
+  private final Producer<T>                 producer;
+  private final Set<Annotation>             qualifiers;
+  private final Class<? extends Annotation> scope;
+  private final LongAdder                   created;
+  private volatile Set<Type>                types;
 
   public ManagedBean(Class<T> subtype, Producer<T> producer) {
+    this(subtype, producer, null);
+  }
+
+  /**
+   * @param created counts the instances created, null not to count them
+   */
+  public ManagedBean(Class<T> subtype, Producer<T> producer, LongAdder created) {
     this.subtype = subtype;
     this.producer = producer;
+    this.created = created;
     this.qualifiers = ReflectionsHelper.getQualifiers(subtype);
+    this.scope = producer instanceof MethodProducer
+        ? ReflectionsHelper.getScope(((MethodProducer<T>) producer).getMethod())
+        : ReflectionsHelper.getScope(subtype);
+  }
+
+  public Producer<T> getProducer() {
+    return producer;
+  }
+
+  /**
+   * The annotation of the given type on the producer method of the bean, or on its class for the other beans.
+   */
+  public <A extends Annotation> A getAnnotation(Class<A> annotationType) {
+    return producer instanceof MethodProducer
+        ? ((MethodProducer<T>) producer).getMethod().getAnnotation(annotationType)
+        : subtype.getAnnotation(annotationType);
   }
 
   @Override
@@ -33,17 +64,59 @@ public class ManagedBean<T> implements Bean<T> {
 
   @Override
   public T create(CreationalContext<T> creationalContext) {
-    return producer.produce(creationalContext);
+    var event = new CreationEvent();
+    if (!event.isEnabled())
+      return count(producer.produce(creationalContext));
+    var depth = event.enter();
+    try {
+      return count(producer.produce(creationalContext));
+    } finally {
+      event.commit(subtype, scope, depth);
+    }
+  }
+
+  private T count(T instance) {
+    if (created != null)
+      created.increment();
+    return instance;
+  }
+
+  /**
+   * The counter of the instances created of this bean, null when they are not counted.
+   */
+  public LongAdder getCreationCounter() {
+    return created;
   }
 
   @Override
   public void destroy(T t, CreationalContext<T> creationalContext) {
-    throw new UnsupportedOperationException("Not yet implemented");
+    try {
+      producer.dispose(t);
+    } finally {
+      if (creationalContext != null)
+        creationalContext.release();
+    }
   }
 
+  /**
+   * Whether destroying an instance calls anything, a {@code @PreDestroy} or a disposer method.
+   */
+  @Override
+  public boolean hasDisposal() {
+    return !(producer instanceof Disposable) || ((Disposable) producer).hasDisposal();
+  }
+
+  /**
+   * The type closure of the bean class, or of the generic return type of its producer method, computed once.
+   */
   @Override
   public Set<Type> getTypes() {
-    return Set.of();
+    var t = types;
+    if (t == null)
+      types = t = ReflectionsHelper.getTypeClosure(producer instanceof MethodProducer
+          ? ((MethodProducer<T>) producer).getMethod().getGenericReturnType()
+          : subtype);
+    return t;
   }
 
   @Override
@@ -53,7 +126,7 @@ public class ManagedBean<T> implements Bean<T> {
 
   @Override
   public Class<? extends Annotation> getScope() {
-    return null;
+    return scope;
   }
 
   @Override
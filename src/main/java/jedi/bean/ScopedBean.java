@@ -0,0 +1,151 @@
+package jedi.bean;
+
+import jakarta.enterprise.context.spi.AlterableContext;
+import jakarta.enterprise.context.spi.Context;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.InjectionPoint;
+import jedi.ReflectionsHelper;
+import jedi.context.Pooled;
+import jedi.context.PooledContext;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bean of a non-dependent scope. Its instances are taken from the {@link Context} of its scope, which creates them
+ * through the underlying bean when needed.
+ * <p>
+ * Beans of a normal scope are always given out as the same client proxy, created the first time it is needed, which
+ * looks the instance up in the context on every call.
+ */
+public class ScopedBean<T> implements Bean<T> {
+  private final Bean<T>                bean;
+  private final Context                context;
+  private final ContextualReference<T> reference;
+  private final boolean                normal;
+  private final ReentrantLock          lock = new ReentrantLock();
+  private volatile T                   proxy;
+
+  public ScopedBean(Bean<T> bean, Context context) {
+    this.bean = bean;
+    this.context = context;
+    this.reference = new ContextualReference<>(bean, context);
+    this.normal = ReflectionsHelper.isNormalScope(context.getScope());
+  }
+
+  public Bean<T> getBean() {
+    return bean;
+  }
+
+  public Context getContext() {
+    return context;
+  }
+
+  /**
+   * The instance of the bean in its context, created if there is none yet, never a client proxy.
+   */
+  public T getInstance() {
+    return reference.get();
+  }
+
+  @Override
+  public T create(CreationalContext<T> creationalContext) {
+    if (!normal)
+      return reference.get();
+    var p = proxy;
+    return p != null ? p : createProxy();
+  }
+
+  private T createProxy() {
+    lock.lock();
+    try {
+      if (proxy == null)
+        proxy = ClientProxies.create(bean.getBeanClass(), reference);
+      return proxy;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gives an instance of a {@link Pooled} bean back to its pool, and destroys the instances of the other beans.
+   */
+  @Override
+  public void destroy(T t, CreationalContext<T> creationalContext) {
+    if (context instanceof PooledContext)
+      ((PooledContext) context).release(t);
+    else
+      bean.destroy(t, creationalContext);
+  }
+
+  /**
+   * Gives an instance of a {@link Pooled} bean back to its pool, returning false for the other beans.
+   */
+  public boolean release(T instance) {
+    return context instanceof PooledContext && ((PooledContext) context).release(instance);
+  }
+
+  /**
+   * Whether the given instance is one of a {@link Pooled} bean in use, taken from its pool.
+   */
+  public boolean isLeased(T instance) {
+    return context instanceof PooledContext && ((PooledContext) context).isLeased(bean, instance);
+  }
+
+  /**
+   * Destroys the current instance of the bean in its context, or the given instance of a {@link Pooled} bean.
+   */
+  public void destroyInstance(T instance) {
+    if (context instanceof PooledContext) {
+      ((PooledContext) context).destroy(instance);
+      return;
+    }
+    if (!(context instanceof AlterableContext))
+      throw new UnsupportedOperationException("The context of scope " + context.getScope().getName()
+          + " doesn't support destroying instances");
+    ((AlterableContext) context).destroy(bean);
+  }
+
+  @Override
+  public Class<?> getBeanClass() {
+    return bean.getBeanClass();
+  }
+
+  @Override
+  public Set<InjectionPoint> getInjectionPoints() {
+    return bean.getInjectionPoints();
+  }
+
+  @Override
+  public Set<Type> getTypes() {
+    return bean.getTypes();
+  }
+
+  @Override
+  public Set<Annotation> getQualifiers() {
+    return bean.getQualifiers();
+  }
+
+  @Override
+  public Class<? extends Annotation> getScope() {
+    return bean.getScope();
+  }
+
+  @Override
+  public String getName() {
+    return bean.getName();
+  }
+
+  @Override
+  public Set<Class<? extends Annotation>> getStereotypes() {
+    return bean.getStereotypes();
+  }
+
+  @Override
+  public boolean isAlternative() {
+    return bean.isAlternative();
+  }
+}
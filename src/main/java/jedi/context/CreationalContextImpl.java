@@ -0,0 +1,126 @@
+package jedi.context;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.spi.Bean;
+import jedi.injection.producer.Disposable;
+
+import java.util.Arrays;
+
+import static jedi.ReflectionsHelper.cast;
+
+/**
+ * Records the {@code @Dependent} instances created for an instance, so that they are destroyed with it.
+ * <p>
+ * Only the dependents that have something to destroy are recorded: the ones with a {@code @PreDestroy} or disposer
+ * method, and the ones with such dependents of their own. They are kept in a single array of (contextual, instance,
+ * creational context) triples, allocated with the first dependent, and destroyed in reverse creation order.
+ * {@link Pooled} instances are recorded as well, to be given back to their pool.
+ */
+public class CreationalContextImpl<T> implements CreationalContext<T> {
+  private static final int STRIDE = 3;
+
+  private Object[] dependents;
+  private int      size;
+
+  /**
+   * Creates an instance of the given bean as a dependency of the instance the parent context belongs to.
+   */
+  public static <D> D createDependent(Contextual<D> contextual, CreationalContext<?> parent) {
+    if (parent instanceof CreationalContextImpl) {
+      if (isDependent(contextual))
+        return ((CreationalContextImpl<?>) parent).createDependent(contextual);
+      if (isPooled(contextual))
+        return ((CreationalContextImpl<?>) parent).createPooled(contextual);
+    }
+    return contextual.create(cast(parent));
+  }
+
+  public static boolean isDependent(Contextual<?> contextual) {
+    return !(contextual instanceof Bean) || ((Bean<?>) contextual).getScope() == Dependent.class;
+  }
+
+  public static boolean isPooled(Contextual<?> contextual) {
+    return contextual instanceof Bean && ((Bean<?>) contextual).getScope() == Pooled.class;
+  }
+
+  public static boolean hasDisposal(Contextual<?> contextual) {
+    return !(contextual instanceof Disposable) || ((Disposable) contextual).hasDisposal();
+  }
+
+  private <D> D createDependent(Contextual<D> contextual) {
+    var context = new CreationalContextImpl<D>();
+    var instance = contextual.create(context);
+    if (context.hasDependents() || hasDisposal(contextual))
+      addDependent(contextual, instance, context);
+    return instance;
+  }
+
+  // recorded so that the instance goes back to its pool when the one it is injected into is destroyed
+  private <D> D createPooled(Contextual<D> contextual) {
+    var instance = contextual.create(null);
+    addDependent(contextual, instance, null);
+    return instance;
+  }
+
+  public <D> void addDependent(Contextual<D> contextual, D instance, CreationalContext<D> context) {
+    if (dependents == null)
+      dependents = new Object[4 * STRIDE];
+    else if (size == dependents.length)
+      dependents = Arrays.copyOf(dependents, size * 2);
+    dependents[size++] = contextual;
+    dependents[size++] = instance;
+    dependents[size++] = context;
+  }
+
+  /**
+   * Takes over the dependents recorded by another context, which is left empty.
+   */
+  public void addDependents(CreationalContextImpl<?> other) {
+    var all = other.dependents;
+    var count = other.size;
+    other.dependents = null;
+    other.size = 0;
+    for (int i = 0; i < count; i += STRIDE)
+      addDependent(cast(all[i]), all[i + 1], cast(all[i + 2]));
+  }
+
+  public boolean hasDependents() {
+    return size > 0;
+  }
+
+  @Override
+  public void push(T incompleteInstance) {
+    // circular dependencies are rejected at resolution, there is never an incomplete instance to share
+  }
+
+  /**
+   * Destroys the recorded dependents, the last created first, and forgets them.
+   */
+  @Override
+  public void release() {
+    var all = dependents;
+    var count = size;
+    dependents = null;
+    size = 0;
+    RuntimeException failure = null;
+    for (int i = count - STRIDE; i >= 0; i -= STRIDE) {
+      try {
+        Contextual<Object> contextual = cast(all[i]);
+        contextual.destroy(all[i + 1], cast(all[i + 2]));
+      } catch (RuntimeException e) {
+        failure = addFailure(failure, e);
+      }
+    }
+    if (failure != null)
+      throw failure;
+  }
+
+  static RuntimeException addFailure(RuntimeException failure, RuntimeException e) {
+    if (failure == null)
+      return e;
+    failure.addSuppressed(e);
+    return failure;
+  }
+}
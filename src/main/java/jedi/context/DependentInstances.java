@@ -0,0 +1,81 @@
+package jedi.context;
+
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static jedi.context.CreationalContextImpl.addFailure;
+
+/**
+ * The {@code @Dependent} instances handed out by an {@link jakarta.enterprise.inject.Instance} that have something
+ * to destroy, until they are destroyed through it or its owner is destroyed: the container for the instances it
+ * selects itself, the bean an {@code Instance} or {@code Provider} is injected into for the others.
+ * <p>
+ * The instances are kept in creation order, and destroyed the last created first.
+ */
+public class DependentInstances {
+  private Map<InstanceKey, Entry<?>> instances;
+
+  public synchronized <T> void add(Contextual<T> contextual, T instance, CreationalContext<T> creationalContext) {
+    if (instances == null)
+      instances = new LinkedHashMap<>();
+    instances.put(new InstanceKey(instance), new Entry<>(contextual, instance, creationalContext));
+  }
+
+  /**
+   * Destroys the given instance, returning false when it isn't tracked.
+   */
+  public boolean destroy(Object instance) {
+    Entry<?> entry;
+    synchronized (this) {
+      entry = instances != null ? instances.remove(new InstanceKey(instance)) : null;
+    }
+    if (entry == null)
+      return false;
+    entry.destroy();
+    return true;
+  }
+
+  public void destroyAll() {
+    ArrayList<Entry<?>> all;
+    synchronized (this) {
+      if (instances == null)
+        return;
+      all = new ArrayList<>(instances.values());
+      instances = null;
+    }
+    RuntimeException failure = null;
+    for (int i = all.size() - 1; i >= 0; i--) {
+      try {
+        all.get(i).destroy();
+      } catch (RuntimeException e) {
+        failure = addFailure(failure, e);
+      }
+    }
+    if (failure != null)
+      throw failure;
+  }
+
+  public synchronized int size() {
+    return instances != null ? instances.size() : 0;
+  }
+
+  private static final class Entry<T> {
+    private final Contextual<T>        contextual;
+    private final T                    instance;
+    private final CreationalContext<T> creationalContext;
+
+    Entry(Contextual<T> contextual, T instance, CreationalContext<T> creationalContext) {
+      this.contextual = contextual;
+      this.instance = instance;
+      this.creationalContext = creationalContext;
+    }
+
+    void destroy() {
+      contextual.destroy(instance, creationalContext);
+    }
+  }
+}
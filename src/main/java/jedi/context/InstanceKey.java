@@ -0,0 +1,22 @@
+package jedi.context;
+
+/**
+ * Looks an instance up by identity, whatever its {@code equals} and {@code hashCode}.
+ */
+final class InstanceKey {
+  private final Object instance;
+
+  InstanceKey(Object instance) {
+    this.instance = instance;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof InstanceKey && ((InstanceKey) o).instance == instance;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(instance);
+  }
+}
@@ -0,0 +1,107 @@
+package jedi.context;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the activity of the pool of a {@link Pooled} bean.
+ */
+public final class PoolMetrics {
+  private final int  maxSize;
+  private final int  idle;
+  private final int  inUse;
+  private final long acquisitions;
+  private final long hits;
+  private final long waits;
+  private final long waitNanos;
+  private final long maxWaitNanos;
+  private final long timeouts;
+  private final long evictions;
+
+  PoolMetrics(int maxSize, int idle, int inUse, long acquisitions, long hits, long waits, long waitNanos,
+      long maxWaitNanos, long timeouts, long evictions) {
+    this.maxSize = maxSize;
+    this.idle = idle;
+    this.inUse = inUse;
+    this.acquisitions = acquisitions;
+    this.hits = hits;
+    this.waits = waits;
+    this.waitNanos = waitNanos;
+    this.maxWaitNanos = maxWaitNanos;
+    this.timeouts = timeouts;
+    this.evictions = evictions;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int getIdle() {
+    return idle;
+  }
+
+  public int getInUse() {
+    return inUse;
+  }
+
+  /**
+   * The instances handed out, reused or created.
+   */
+  public long getAcquisitions() {
+    return acquisitions;
+  }
+
+  /**
+   * The instances handed out that were reused from the pool.
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return acquisitions - hits;
+  }
+
+  /**
+   * The share of the instances handed out that were reused, 0 before the first one.
+   */
+  public double getHitRate() {
+    return acquisitions == 0 ? 0 : (double) hits / acquisitions;
+  }
+
+  /**
+   * The acquisitions that had to wait for an instance to be given back, including the ones that timed out.
+   */
+  public long getWaits() {
+    return waits;
+  }
+
+  public Duration getTotalWait() {
+    return Duration.ofNanos(waitNanos);
+  }
+
+  public Duration getAverageWait() {
+    return waits == 0 ? Duration.ZERO : Duration.ofNanos(waitNanos / waits);
+  }
+
+  public Duration getMaxWait() {
+    return Duration.ofNanos(maxWaitNanos);
+  }
+
+  public long getTimeouts() {
+    return timeouts;
+  }
+
+  /**
+   * The idle instances destroyed for staying too long in the pool.
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  @Override
+  public String toString() {
+    return "PoolMetrics[maxSize=" + maxSize + ", idle=" + idle + ", inUse=" + inUse + ", acquisitions="
+        + acquisitions + ", hitRate=" + getHitRate() + ", waits=" + waits + ", averageWait=" + getAverageWait()
+        + ", maxWait=" + getMaxWait() + ", timeouts=" + timeouts + ", evictions=" + evictions + "]";
+  }
+}
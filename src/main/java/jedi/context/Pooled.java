@@ -0,0 +1,75 @@
+package jedi.context;
+
+import jakarta.enterprise.util.AnnotationLiteral;
+import jakarta.inject.Scope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Hands out the instances of a bean from a bounded pool, for beans that are expensive to create and not thread-safe.
+ * <p>
+ * An instance is taken from the pool by {@code Instance.get()} and given back by {@code Instance.destroy()} or by
+ * closing its {@code Instance.Handle}. Instances injected into another bean are given back when that bean is
+ * destroyed. See {@link PooledContext}.
+ */
+@Documented
+@Scope
+@Retention(RUNTIME)
+@Target({ TYPE, METHOD })
+public @interface Pooled {
+  /**
+   * The most instances of the bean in use at the same time.
+   */
+  int maxSize() default 8;
+
+  /**
+   * How long an instance stays idle in the pool before it is destroyed, 0 to keep idle instances forever.
+   */
+  long maxIdleMillis() default 60_000;
+
+  /**
+   * How long to wait for an instance when all of them are in use, before giving up.
+   */
+  long maxWaitMillis() default 30_000;
+
+  final class Literal extends AnnotationLiteral<Pooled> implements Pooled {
+    private static final long serialVersionUID = 1L;
+
+    public static final Literal INSTANCE = new Literal(8, 60_000, 30_000);
+
+    private final int  maxSize;
+    private final long maxIdleMillis;
+    private final long maxWaitMillis;
+
+    private Literal(int maxSize, long maxIdleMillis, long maxWaitMillis) {
+      this.maxSize = maxSize;
+      this.maxIdleMillis = maxIdleMillis;
+      this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public static Literal of(int maxSize, long maxIdleMillis, long maxWaitMillis) {
+      return new Literal(maxSize, maxIdleMillis, maxWaitMillis);
+    }
+
+    @Override
+    public int maxSize() {
+      return maxSize;
+    }
+
+    @Override
+    public long maxIdleMillis() {
+      return maxIdleMillis;
+    }
+
+    @Override
+    public long maxWaitMillis() {
+      return maxWaitMillis;
+    }
+  }
+}
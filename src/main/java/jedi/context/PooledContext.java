@@ -0,0 +1,349 @@
+package jedi.context;
+
+import jakarta.enterprise.context.spi.AlterableContext;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.CreationException;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.DefinitionException;
+import jedi.bean.ManagedBean;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static jedi.ReflectionsHelper.cast;
+import static jedi.context.CreationalContextImpl.addFailure;
+
+/**
+ * Keeps a bounded pool of instances per {@link Pooled} bean. Getting an instance from the context takes it out of the
+ * pool, and {@link #release} puts it back for the next caller.
+ * <p>
+ * The size of a pool is bounded by a semaphore, and its idle instances are kept in a lock-free deque, the last given
+ * back first so that the instances in use stay warm and the ones at the other end can age out. Idle instances older
+ * than {@link Pooled#maxIdleMillis()} are destroyed when the pool is used, there is no background thread.
+ */
+public class PooledContext implements AlterableContext {
+  private final Function<Contextual<?>, Pooled> configuration;
+  private final Map<Contextual<?>, Pool<?>>     pools  = new ConcurrentHashMap<>();
+  private final Map<InstanceKey, Lease<?>>      leases = new ConcurrentHashMap<>();
+
+  /**
+   * Configures each pool from the {@link Pooled} annotation of its bean.
+   */
+  public PooledContext() {
+    this(PooledContext::getConfiguration);
+  }
+
+  public PooledContext(Function<Contextual<?>, Pooled> configuration) {
+    this.configuration = configuration;
+  }
+
+  private static Pooled getConfiguration(Contextual<?> contextual) {
+    var pooled = contextual instanceof ManagedBean ? ((ManagedBean<?>) contextual).getAnnotation(Pooled.class) : null;
+    return pooled != null ? pooled : Pooled.Literal.INSTANCE;
+  }
+
+  @Override
+  public Class<? extends Annotation> getScope() {
+    return Pooled.class;
+  }
+
+  /**
+   * Takes an instance out of the pool, creating it with the given creational context when there is no idle one.
+   */
+  @Override
+  public <T> T get(Contextual<T> contextual, CreationalContext<T> creationalContext) {
+    return pool(contextual).acquire(creationalContext);
+  }
+
+  /**
+   * Takes an instance out of the pool like {@link #get(Contextual, CreationalContext)}, so it never returns null.
+   */
+  @Override
+  public <T> T get(Contextual<T> contextual) {
+    return pool(contextual).acquire(null);
+  }
+
+  @Override
+  public boolean isActive() {
+    return true;
+  }
+
+  /**
+   * Gives an instance back to its pool, returning false when it isn't a pooled instance in use.
+   */
+  public boolean release(Object instance) {
+    var lease = leases.remove(new InstanceKey(instance));
+    if (lease == null)
+      return false;
+    lease.pool.release(cast(lease));
+    return true;
+  }
+
+  /**
+   * Whether the given instance is in use, taken from the pool of the given bean.
+   */
+  public boolean isLeased(Contextual<?> contextual, Object instance) {
+    var lease = leases.get(new InstanceKey(instance));
+    return lease != null && lease.pool.contextual == contextual;
+  }
+
+  /**
+   * Destroys an instance in use instead of giving it back, returning false when it isn't a pooled instance in use.
+   */
+  public boolean destroy(Object instance) {
+    var lease = leases.remove(new InstanceKey(instance));
+    if (lease == null)
+      return false;
+    lease.pool.discard(cast(lease));
+    return true;
+  }
+
+  /**
+   * Destroys the idle instances of the given bean and forgets its pool. Its instances in use are destroyed when
+   * they are given back.
+   */
+  @Override
+  public void destroy(Contextual<?> contextual) {
+    var pool = pools.remove(contextual);
+    if (pool != null)
+      pool.close();
+  }
+
+  /**
+   * Destroys every instance, idle or in use.
+   */
+  public void destroyAll() {
+    var all = new ArrayList<>(pools.values());
+    pools.clear();
+    var inUse = new ArrayList<>(leases.values());
+    leases.clear();
+    RuntimeException failure = null;
+    for (var pool : all) {
+      try {
+        pool.close();
+      } catch (RuntimeException e) {
+        failure = addFailure(failure, e);
+      }
+    }
+    for (var lease : inUse) {
+      try {
+        lease.destroy();
+      } catch (RuntimeException e) {
+        failure = addFailure(failure, e);
+      }
+    }
+    if (failure != null)
+      throw failure;
+  }
+
+  /**
+   * Destroys the instances that stayed idle for too long in every pool.
+   */
+  public void evictIdle() {
+    var now = System.nanoTime();
+    pools.values().forEach(pool -> pool.evictExpired(now));
+  }
+
+  /**
+   * The number of instances of every pool, idle or in use.
+   */
+  public int size() {
+    var size = 0;
+    for (var pool : pools.values()) {
+      var metrics = pool.getMetrics();
+      size += metrics.getIdle() + metrics.getInUse();
+    }
+    return size;
+  }
+
+  /**
+   * The metrics of the pool of the given bean class, or null when none of its instances was asked for yet.
+   */
+  public PoolMetrics getMetrics(Class<?> beanClass) {
+    for (var pool : pools.values())
+      if (pool.contextual instanceof Bean && ((Bean<?>) pool.contextual).getBeanClass() == beanClass)
+        return pool.getMetrics();
+    return null;
+  }
+
+  private <T> Pool<T> pool(Contextual<T> contextual) {
+    var pool = pools.get(contextual);
+    if (pool == null)
+      pool = pools.computeIfAbsent(contextual, c -> new Pool<>(c, configuration.apply(c)));
+    return cast(pool);
+  }
+
+  private final class Pool<T> {
+    private final Contextual<T>   contextual;
+    private final int             maxSize;
+    private final long            maxIdleNanos;
+    private final long            maxWaitNanos;
+    private final Semaphore       permits;
+    private final Deque<Lease<T>> idle         = new ConcurrentLinkedDeque<>();
+    private final LongAdder       acquisitions = new LongAdder();
+    private final LongAdder       hits         = new LongAdder();
+    private final LongAdder       waits        = new LongAdder();
+    private final LongAdder       waitNanos    = new LongAdder();
+    private final LongAccumulator maxWait      = new LongAccumulator(Math::max, 0);
+    private final LongAdder       timeouts     = new LongAdder();
+    private final LongAdder       evictions    = new LongAdder();
+    private volatile boolean      closed;
+
+    Pool(Contextual<T> contextual, Pooled configuration) {
+      if (configuration.maxSize() < 1)
+        throw new DefinitionException("The pool of " + name(contextual) + " must hold at least one instance");
+      this.contextual = contextual;
+      this.maxSize = configuration.maxSize();
+      this.maxIdleNanos = MILLISECONDS.toNanos(configuration.maxIdleMillis());
+      this.maxWaitNanos = MILLISECONDS.toNanos(configuration.maxWaitMillis());
+      this.permits = new Semaphore(maxSize);
+    }
+
+    T acquire(CreationalContext<T> creationalContext) {
+      if (!permits.tryAcquire())
+        await();
+      try {
+        var lease = poll();
+        if (lease != null) {
+          hits.increment();
+        } else {
+          var context = creationalContext != null ? creationalContext : new CreationalContextImpl<T>();
+          lease = new Lease<>(this, contextual.create(context), context);
+        }
+        acquisitions.increment();
+        leases.put(new InstanceKey(lease.instance), lease);
+        return lease.instance;
+      } catch (RuntimeException | Error e) {
+        permits.release();
+        throw e;
+      }
+    }
+
+    private void await() {
+      waits.increment();
+      var start = System.nanoTime();
+      boolean acquired;
+      try {
+        acquired = permits.tryAcquire(maxWaitNanos, NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CreationException("Interrupted while waiting for a pooled instance of " + name(contextual), e);
+      } finally {
+        var waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        maxWait.accumulate(waited);
+      }
+      if (!acquired) {
+        timeouts.increment();
+        throw new CreationException("No pooled instance of " + name(contextual) + " was given back within "
+            + NANOSECONDS.toMillis(maxWaitNanos) + " ms, all " + maxSize + " of them are in use");
+      }
+    }
+
+    private Lease<T> poll() {
+      var now = System.nanoTime();
+      Lease<T> lease;
+      while ((lease = idle.pollFirst()) != null) {
+        if (!isExpired(lease, now))
+          return lease;
+        evict(lease);
+      }
+      return null;
+    }
+
+    void release(Lease<T> lease) {
+      if (closed) {
+        discard(lease);
+        return;
+      }
+      var now = System.nanoTime();
+      lease.idleSince = now;
+      idle.offerFirst(lease);
+      permits.release();
+      evictExpired(now);
+    }
+
+    void discard(Lease<T> lease) {
+      try {
+        lease.destroy();
+      } finally {
+        permits.release();
+      }
+    }
+
+    // the oldest idle instances are at the end of the deque
+    void evictExpired(long now) {
+      Lease<T> lease;
+      while ((lease = idle.peekLast()) != null && isExpired(lease, now))
+        if (idle.removeLastOccurrence(lease))
+          evict(lease);
+    }
+
+    private boolean isExpired(Lease<T> lease, long now) {
+      return maxIdleNanos > 0 && now - lease.idleSince > maxIdleNanos;
+    }
+
+    private void evict(Lease<T> lease) {
+      evictions.increment();
+      try {
+        lease.destroy();
+      } catch (RuntimeException e) {
+        // it is out of the pool all the same, the caller asked for another instance and shouldn't fail for it
+      }
+    }
+
+    void close() {
+      closed = true;
+      RuntimeException failure = null;
+      Lease<T> lease;
+      while ((lease = idle.pollFirst()) != null) {
+        try {
+          lease.destroy();
+        } catch (RuntimeException e) {
+          failure = addFailure(failure, e);
+        }
+      }
+      if (failure != null)
+        throw failure;
+    }
+
+    PoolMetrics getMetrics() {
+      var idleCount = idle.size();
+      return new PoolMetrics(maxSize, idleCount, Math.max(0, maxSize - permits.availablePermits()),
+          acquisitions.sum(), hits.sum(), waits.sum(), waitNanos.sum(), maxWait.get(), timeouts.sum(),
+          evictions.sum());
+    }
+  }
+
+  private static String name(Contextual<?> contextual) {
+    return contextual instanceof Bean ? ((Bean<?>) contextual).getBeanClass().getName() : contextual.toString();
+  }
+
+  private static final class Lease<T> {
+    private final PooledContext.Pool<T> pool;
+    private final T                     instance;
+    private final CreationalContext<T>  creationalContext;
+    private volatile long               idleSince;
+
+    Lease(PooledContext.Pool<T> pool, T instance, CreationalContext<T> creationalContext) {
+      this.pool = pool;
+      this.instance = instance;
+      this.creationalContext = creationalContext;
+    }
+
+    void destroy() {
+      pool.contextual.destroy(instance, creationalContext);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package jedi.context;
+
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.control.RequestContextController;
+import jakarta.enterprise.context.spi.AlterableContext;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+
+import static jedi.ReflectionsHelper.cast;
+import static jedi.context.CreationalContextImpl.addFailure;
+
+/**
+ * The context of {@link RequestScoped} beans, active on a thread between {@link #activate()} and
+ * {@link #deactivate()}, which destroys every instance created during the request.
+ * <p>
+ * The request state is a plain {@link ThreadLocal}: it is not inherited by threads started during the request and,
+ * as no monitor is ever held, doesn't pin virtual threads to their carrier. The instances are kept in arrays that are
+ * only allocated once the request creates its first bean.
+ */
+public class RequestContext implements AlterableContext, RequestContextController {
+  private final ThreadLocal<Request> requests = new ThreadLocal<>();
+
+  @Override
+  public Class<? extends Annotation> getScope() {
+    return RequestScoped.class;
+  }
+
+  /**
+   * Activates the context on the current thread, returning false when it was already active.
+   */
+  @Override
+  public boolean activate() {
+    if (requests.get() != null)
+      return false;
+    requests.set(new Request());
+    return true;
+  }
+
+  @Override
+  public void deactivate() {
+    var request = current();
+    requests.remove();
+    request.destroy();
+  }
+
+  @Override
+  public <T> T get(Contextual<T> contextual, CreationalContext<T> creationalContext) {
+    var request = current();
+    var instance = request.get(contextual);
+    if (instance == null) {
+      var context = creationalContext != null ? creationalContext : new CreationalContextImpl<T>();
+      instance = contextual.create(context);
+      request.add(contextual, instance, context);
+    }
+    return instance;
+  }
+
+  @Override
+  public void destroy(Contextual<?> contextual) {
+    current().destroy(contextual);
+  }
+
+  @Override
+  public <T> T get(Contextual<T> contextual) {
+    return current().get(contextual);
+  }
+
+  @Override
+  public boolean isActive() {
+    return requests.get() != null;
+  }
+
+  private Request current() {
+    var request = requests.get();
+    if (request == null)
+      throw new ContextNotActiveException("No request context active on thread " + Thread.currentThread().getName());
+    return request;
+  }
+
+  private static final class Request {
+    private Contextual<?>[]        contextuals;
+    private Object[]               instances;
+    private CreationalContext<?>[] creationalContexts;
+    private int                    size;
+
+    <T> T get(Contextual<T> contextual) {
+      for (int i = 0; i < size; i++)
+        if (contextuals[i] == contextual)
+          return cast(instances[i]);
+      return null;
+    }
+
+    <T> void add(Contextual<T> contextual, T instance, CreationalContext<T> creationalContext) {
+      if (contextuals == null) {
+        contextuals = new Contextual<?>[4];
+        instances = new Object[4];
+        creationalContexts = new CreationalContext<?>[4];
+      } else if (size == contextuals.length) {
+        contextuals = Arrays.copyOf(contextuals, size * 2);
+        instances = Arrays.copyOf(instances, size * 2);
+        creationalContexts = Arrays.copyOf(creationalContexts, size * 2);
+      }
+      contextuals[size] = contextual;
+      instances[size] = instance;
+      creationalContexts[size++] = creationalContext;
+    }
+
+    void destroy(Contextual<?> contextual) {
+      for (int i = 0; i < size; i++) {
+        if (contextuals[i] == contextual) {
+          Contextual<Object> c = cast(contextual);
+          var instance = instances[i];
+          CreationalContext<Object> creationalContext = cast(creationalContexts[i]);
+          var tail = --size - i;
+          System.arraycopy(contextuals, i + 1, contextuals, i, tail);
+          System.arraycopy(instances, i + 1, instances, i, tail);
+          System.arraycopy(creationalContexts, i + 1, creationalContexts, i, tail);
+          contextuals[size] = null;
+          instances[size] = null;
+          creationalContexts[size] = null;
+          c.destroy(instance, creationalContext);
+          return;
+        }
+      }
+    }
+
+    // In reverse creation order, so that beans are destroyed before the beans they were created from.
+    void destroy() {
+      RuntimeException failure = null;
+      for (int i = size - 1; i >= 0; i--) {
+        try {
+          Contextual<Object> contextual = cast(contextuals[i]);
+          contextual.destroy(instances[i], cast(creationalContexts[i]));
+        } catch (RuntimeException e) {
+          failure = addFailure(failure, e);
+        }
+      }
+      if (failure != null)
+        throw failure;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package jedi.context;
+
+import jakarta.enterprise.context.spi.AlterableContext;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static jedi.ReflectionsHelper.cast;
+import static jedi.context.CreationalContextImpl.addFailure;
+
+/**
+ * Keeps one instance per bean for the lifetime of the container, created the first time it is asked for.
+ * <p>
+ * Once an instance is published, getting it is a lock-free map lookup and a volatile read. Creation is guarded by
+ * a lock per bean, so creating one singleton never waits for another one unless it depends on it.
+ */
+public class SingletonContext implements AlterableContext {
+  private final Class<? extends Annotation>   scope;
+  private final Map<Contextual<?>, Holder<?>> holders = new ConcurrentHashMap<>();
+  private final Queue<Holder<?>>              created = new ConcurrentLinkedQueue<>();
+
+  public SingletonContext(Class<? extends Annotation> scope) {
+    this.scope = scope;
+  }
+
+  @Override
+  public Class<? extends Annotation> getScope() {
+    return scope;
+  }
+
+  @Override
+  public <T> T get(Contextual<T> contextual, CreationalContext<T> creationalContext) {
+    return holder(contextual).get(creationalContext);
+  }
+
+  @Override
+  public <T> T get(Contextual<T> contextual) {
+    var holder = holders.get(contextual);
+    return holder != null ? cast(holder.instance) : null;
+  }
+
+  @Override
+  public boolean isActive() {
+    return true;
+  }
+
+  @Override
+  public void destroy(Contextual<?> contextual) {
+    var holder = holders.remove(contextual);
+    if (holder != null) {
+      created.remove(holder);
+      holder.destroy();
+    }
+  }
+
+  /**
+   * The number of instances created and not destroyed yet.
+   */
+  public int size() {
+    return created.size();
+  }
+
+  /**
+   * Destroys every instance, the last created first.
+   */
+  public void destroyAll() {
+    var all = new ArrayList<Holder<?>>(created);
+    created.clear();
+    holders.clear();
+    RuntimeException failure = null;
+    for (int i = all.size() - 1; i >= 0; i--) {
+      try {
+        all.get(i).destroy();
+      } catch (RuntimeException e) {
+        failure = addFailure(failure, e);
+      }
+    }
+    if (failure != null)
+      throw failure;
+  }
+
+  private <T> Holder<T> holder(Contextual<T> contextual) {
+    var holder = holders.get(contextual);
+    if (holder == null)
+      holder = holders.computeIfAbsent(contextual, Holder::new);
+    return cast(holder);
+  }
+
+  private final class Holder<T> {
+    private final Contextual<T>  contextual;
+    private final ReentrantLock  lock = new ReentrantLock();
+    private volatile T           instance;
+    private CreationalContext<T> creationalContext;
+
+    Holder(Contextual<T> contextual) {
+      this.contextual = contextual;
+    }
+
+    T get(CreationalContext<T> context) {
+      var i = instance;
+      if (i != null)
+        return i;
+      lock.lock();
+      try {
+        i = instance;
+        if (i == null) {
+          creationalContext = context != null ? context : new CreationalContextImpl<>();
+          instance = i = contextual.create(creationalContext);
+          created.add(this);
+        }
+        return i;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void destroy() {
+      lock.lock();
+      try {
+        var i = instance;
+        if (i != null) {
+          instance = null;
+          contextual.destroy(i, creationalContext);
+          creationalContext = null;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package jedi.index;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * The metadata the container needs to resolve beans: subtypes, producer methods and injectable constructors.
+ */
+public interface BeanIndex {
+
+  /**
+   * The concrete classes assignable to the given type, excluding the type itself.
+   */
+  Set<Class<?>> getImplementations(Class<?> type);
+
+  /**
+   * The concrete classes known to the index, the candidates for being beans.
+   */
+  Set<Class<?>> getBeanClasses();
+
+  Set<Method> getProducerMethods();
+
+  <T> Constructor<T> getInjectableConstructor(Class<T> type);
+}
@@ -0,0 +1,204 @@
+package jedi.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static jedi.index.CompiledBeanIndex.*;
+
+/**
+ * Writes the {@link CompiledBeanIndex} of every type in the compilation, so the container does not need to scan the
+ * classpath at runtime.
+ * <p>
+ * An incremental compilation only sees some of the types, so the entries of the index already in the output are kept
+ * for the types that were not compiled again and still exist.
+ */
+@SupportedAnnotationTypes("*")
+public class BeanIndexProcessor extends AbstractProcessor {
+  private static final String PRODUCES = "jakarta.enterprise.inject.Produces";
+  private static final String INJECT   = "jakarta.inject.Inject";
+
+  private final Set<String> records = new TreeSet<>();
+  private final Set<String> types   = new HashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      if (!records.isEmpty())
+        writeIndex();
+    } else {
+      ElementFilter.typesIn(roundEnv.getRootElements()).forEach(this::collect);
+    }
+    return false;
+  }
+
+  private void collect(TypeElement type) {
+    types.add(binaryName(type));
+    if (type.getKind() == ElementKind.CLASS || type.getKind() == ElementKind.INTERFACE) {
+      records.add(record(TYPE,
+          type.getKind() == ElementKind.INTERFACE ? INTERFACE
+              : type.getModifiers().contains(Modifier.ABSTRACT) ? ABSTRACT : CONCRETE,
+          binaryName(type),
+          join(getSuperTypes(type)),
+          getInjectableConstructor(type)));
+      ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+          .filter(m -> isAnnotationPresent(m, PRODUCES))
+          .forEach(m -> records.add(record(PRODUCER,
+              binaryName(type),
+              m.getSimpleName().toString(),
+              join(m.getParameters().stream().map(p -> className(p.asType())).collect(Collectors.toList())),
+              className(m.getReturnType()))));
+    }
+    ElementFilter.typesIn(type.getEnclosedElements()).forEach(this::collect);
+  }
+
+  // All the super types, so that types inherited through classes outside the compilation are still indexed.
+  private List<String> getSuperTypes(TypeElement type) {
+    var superTypes = new LinkedHashSet<String>();
+    collectSuperTypes(type.asType(), superTypes);
+    superTypes.remove(Object.class.getName());
+    return new ArrayList<>(superTypes);
+  }
+
+  private void collectSuperTypes(TypeMirror type, Set<String> superTypes) {
+    for (var superType : processingEnv.getTypeUtils().directSupertypes(type)) {
+      if (superType.getKind() == TypeKind.DECLARED && superTypes.add(className(superType)))
+        collectSuperTypes(superType, superTypes);
+    }
+  }
+
+  // Mirrors ReflectionsHelper.getInjectableConstructor; types whose constructor can't be told apart at compile time
+  // are left to the runtime lookup.
+  private String getInjectableConstructor(TypeElement type) {
+    if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT))
+      return "";
+    var constructors = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+        .filter(c -> c.getModifiers().contains(Modifier.PUBLIC))
+        .collect(Collectors.toList());
+    if (constructors.size() > 1)
+      constructors = constructors.stream()
+          .filter(c -> isAnnotationPresent(c, INJECT))
+          .limit(1)
+          .collect(Collectors.toList());
+    if (constructors.size() != 1)
+      return "";
+    var parameters = new ArrayList<String>();
+    if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))
+      parameters.add(binaryName((TypeElement) type.getEnclosingElement()));
+    constructors.get(0).getParameters().forEach(p -> parameters.add(className(p.asType())));
+    return "(" + join(parameters) + ")";
+  }
+
+  private boolean isAnnotationPresent(Element element, String annotation) {
+    return element.getAnnotationMirrors().stream()
+        .anyMatch(a -> ((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation));
+  }
+
+  private String binaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  // The name Class.forName understands for the erasure of the given type.
+  private String className(TypeMirror type) {
+    var erasure = processingEnv.getTypeUtils().erasure(type);
+    if (erasure.getKind().isPrimitive())
+      return erasure.toString();
+    if (erasure.getKind() == TypeKind.ARRAY)
+      return "[" + descriptor(((ArrayType) erasure).getComponentType());
+    return binaryName((TypeElement) ((DeclaredType) erasure).asElement());
+  }
+
+  private String descriptor(TypeMirror type) {
+    switch (type.getKind()) {
+      case BOOLEAN: return "Z";
+      case BYTE:    return "B";
+      case SHORT:   return "S";
+      case CHAR:    return "C";
+      case INT:     return "I";
+      case LONG:    return "J";
+      case FLOAT:   return "F";
+      case DOUBLE:  return "D";
+      case ARRAY:   return "[" + descriptor(((ArrayType) type).getComponentType());
+      default:      return "L" + className(type) + ";";
+    }
+  }
+
+  private static String join(List<String> values) {
+    return String.join(LIST_SEPARATOR, values);
+  }
+
+  private static String record(String... fields) {
+    return String.join(FIELD_SEPARATOR, fields);
+  }
+
+  private void writeIndex() {
+    var all = new TreeSet<>(records);
+    for (var r : readIndex()) {
+      if (isStillIndexed(r))
+        all.add(r);
+    }
+    try {
+      var file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", LOCATION);
+      try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (var r : all) {
+          writer.write(r);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + LOCATION + ": " + e);
+    }
+  }
+
+  // The entries of the index written by a previous compilation, none when there is no such index or it has another
+  // format.
+  private List<String> readIndex() {
+    var lines = new ArrayList<String>();
+    try {
+      var file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", LOCATION);
+      try (var reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+        if (!HEADER.equals(reader.readLine()))
+          return lines;
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.isEmpty() && !line.startsWith("#"))
+            lines.add(line);
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // nothing compiled yet
+    }
+    return lines;
+  }
+
+  // Whether a previous entry belongs to a type that was not compiled again and still exists.
+  private boolean isStillIndexed(String record) {
+    var fields = record.split(FIELD_SEPARATOR, -1);
+    var type = TYPE.equals(fields[0]) ? fields[2] : fields[1];
+    return !types.contains(type) && processingEnv.getElementUtils().getTypeElement(type.replace('$', '.')) != null;
+  }
+}
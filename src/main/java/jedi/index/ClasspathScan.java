@@ -0,0 +1,108 @@
+package jedi.index;
+
+import javassist.bytecode.ClassFile;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A classpath scan limited to the {@link ReflectionsBeanIndex#SCANNERS scanners} the container queries, run in
+ * parallel over the scanned jars and directories.
+ *
+ * <pre>
+ * var di = new JeDI(new ClasspathScan("com.acme")
+ *     .excludePackage("com.acme.tools")
+ *     .excludeJar(".*-tests\\.jar")
+ *     .scan());
+ * </pre>
+ */
+public class ClasspathScan {
+  private final Set<String>   includedPackages = new LinkedHashSet<>();
+  private final Set<String>   excludedPackages = new LinkedHashSet<>();
+  private final List<Pattern> includedJars     = new ArrayList<>();
+  private final List<Pattern> excludedJars     = new ArrayList<>();
+  private       ForkJoinPool  pool             = ForkJoinPool.commonPool();
+
+  public ClasspathScan(String prefix) {
+    includedPackages.add(prefix);
+  }
+
+  public ClasspathScan includePackage(String prefix) {
+    includedPackages.add(prefix);
+    return this;
+  }
+
+  public ClasspathScan excludePackage(String prefix) {
+    excludedPackages.add(prefix);
+    return this;
+  }
+
+  /**
+   * Limits the scan to the jars whose URL matches one of the included patterns. Directories are always scanned.
+   */
+  public ClasspathScan includeJar(String regex) {
+    includedJars.add(Pattern.compile(regex));
+    return this;
+  }
+
+  public ClasspathScan excludeJar(String regex) {
+    excludedJars.add(Pattern.compile(regex));
+    return this;
+  }
+
+  public ClasspathScan parallelism(ForkJoinPool pool) {
+    this.pool = pool;
+    return this;
+  }
+
+  public ReflectionsBeanIndex scan() {
+    var start = System.nanoTime();
+    var counter = new ClassCounter();
+    var filter = new FilterBuilder();
+    includedPackages.forEach(filter::includePackage);
+    excludedPackages.forEach(filter::excludePackage);
+    var urls = includedPackages.stream()
+        .flatMap(p -> ClasspathHelper.forPackage(p).stream())
+        .filter(this::isScanned)
+        .collect(Collectors.toSet());
+    var scanners = new ArrayList<Scanner>(List.of(ReflectionsBeanIndex.withBeanClasses(ReflectionsBeanIndex.SCANNERS)));
+    scanners.add(counter);
+    var configuration = new ConfigurationBuilder()
+        .setUrls(urls)
+        .filterInputsBy(filter)
+        .setScanners(scanners.toArray(new Scanner[0]))
+        .setParallel(true);
+    // The parallel scan runs on the pool of the thread that starts it.
+    var reflections = pool.submit(() -> new Reflections(configuration)).join();
+    reflections.getStore().remove(counter.index());
+    var report = new ScanReport(System.nanoTime() - start, urls.size(), counter.classes.sum());
+    return new ReflectionsBeanIndex(reflections, report);
+  }
+
+  private boolean isScanned(URL url) {
+    var path = url.toExternalForm();
+    if (!path.endsWith(".jar") && !path.endsWith(".jar!/"))
+      return true;
+    return (includedJars.isEmpty() || includedJars.stream().anyMatch(p -> p.matcher(path).matches()))
+        && excludedJars.stream().noneMatch(p -> p.matcher(path).matches());
+  }
+
+  private static class ClassCounter implements Scanner {
+    private final LongAdder classes = new LongAdder();
+
+    @Override
+    public List<Map.Entry<String, String>> scan(ClassFile classFile) {
+      classes.increment();
+      return List.of();
+    }
+  }
+}
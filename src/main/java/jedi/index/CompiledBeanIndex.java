@@ -0,0 +1,199 @@
+package jedi.index;
+
+import jedi.ReflectionsHelper;
+import org.reflections.ReflectionsException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A {@link BeanIndex} read from the {@value #LOCATION} resources written by the {@link BeanIndexProcessor}.
+ * <p>
+ * When the index is present for a package, every jar contributing classes to that package must have been compiled
+ * with the processor, otherwise its types won't be visible to the container.
+ */
+public class CompiledBeanIndex implements BeanIndex {
+  public static final String LOCATION         = "META-INF/jedi/bean.index";
+  /**
+   * Set to {@code false} for the container to scan the classpath even when a compiled index covers the package.
+   */
+  public static final String ENABLED_PROPERTY = "jedi.index.compiled";
+
+  static final String HEADER          = "# jedi bean index v2";
+  static final String FIELD_SEPARATOR = "\t";
+  static final String LIST_SEPARATOR  = ",";
+  static final String TYPE            = "type";
+  static final String PRODUCER        = "producer";
+  static final String INTERFACE       = "interface";
+  static final String ABSTRACT        = "abstract";
+  static final String CONCRETE        = "concrete";
+
+  private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+      "boolean", boolean.class, "byte", byte.class, "short", short.class, "char", char.class,
+      "int", int.class, "long", long.class, "float", float.class, "double", double.class);
+
+  private final ClassLoader               classLoader;
+  private final Map<String, Set<String>>  subTypes     = new HashMap<>();
+  private final Set<String>               concrete     = new HashSet<>();
+  private final Map<String, String[]>     constructors = new HashMap<>();
+  private final List<String[]>            producers    = new ArrayList<>();
+  private ImplementationIndex             implementations;
+  private volatile Set<Method>            producerMethods;
+  private volatile Set<Class<?>>          beanClasses;
+
+  private CompiledBeanIndex(ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * Loads the index entries of the types under the given package prefix, or returns null when no index covers it.
+   */
+  public static CompiledBeanIndex load(String prefix) {
+    return load(prefix, getDefaultClassLoader());
+  }
+
+  public static CompiledBeanIndex load(String prefix, ClassLoader classLoader) {
+    var index = new CompiledBeanIndex(classLoader);
+    var found = false;
+    try {
+      var resources = classLoader.getResources(LOCATION);
+      while (resources.hasMoreElements())
+        found |= index.read(resources.nextElement(), prefix);
+    } catch (IOException e) {
+      throw new ReflectionsException("Unable to read the bean index " + LOCATION, e);
+    }
+    if (!found)
+      return null;
+    index.implementations = new ImplementationIndex(index.subTypes,
+        name -> index.concrete.contains(name) ? index.findClass(name) : null);
+    return index;
+  }
+
+  private boolean read(URL url, String prefix) throws IOException {
+    var found = false;
+    try (var reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+      if (!HEADER.equals(reader.readLine()))
+        throw new ReflectionsException("The bean index " + url + " was written by another version of the processor");
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty() || line.startsWith("#"))
+          continue;
+        var fields = line.split(FIELD_SEPARATOR, -1);
+        if (TYPE.equals(fields[0]) && fields[2].startsWith(prefix)) {
+          readType(fields);
+          found = true;
+        } else if (PRODUCER.equals(fields[0]) && fields[1].startsWith(prefix)) {
+          producers.add(fields);
+        }
+      }
+    }
+    return found;
+  }
+
+  // type <kind> <name> <all super types> <injectable constructor>
+  private void readType(String[] fields) {
+    var name = fields[2];
+    if (CONCRETE.equals(fields[1]))
+      concrete.add(name);
+    for (var superType : split(fields[3]))
+      subTypes.computeIfAbsent(superType, k -> new LinkedHashSet<>()).add(name);
+    var constructor = fields[4];
+    if (!constructor.isEmpty())
+      constructors.put(name, split(constructor.substring(1, constructor.length() - 1)));
+  }
+
+  @Override
+  public Set<Class<?>> getImplementations(Class<?> type) {
+    return implementations.get(type);
+  }
+
+  /**
+   * Every concrete type of the index, including the ones with no super type but {@link Object}.
+   */
+  @Override
+  public Set<Class<?>> getBeanClasses() {
+    var classes = beanClasses;
+    if (classes == null) {
+      classes = new LinkedHashSet<>();
+      for (var name : concrete) {
+        var type = findClass(name);
+        if (type != null)
+          classes.add(type);
+      }
+      beanClasses = classes = Collections.unmodifiableSet(classes);
+    }
+    return classes;
+  }
+
+  // producer <declaring class> <method> <parameters> <return type>
+  @Override
+  public Set<Method> getProducerMethods() {
+    var methods = producerMethods;
+    if (methods == null) {
+      methods = new LinkedHashSet<>();
+      for (var fields : producers) {
+        try {
+          methods.add(loadClass(fields[1]).getDeclaredMethod(fields[2], loadClasses(split(fields[3]))));
+        } catch (NoSuchMethodException e) {
+          throw new ReflectionsException("Stale bean index entry for producer " + fields[1] + "." + fields[2], e);
+        }
+      }
+      producerMethods = methods = Collections.unmodifiableSet(methods);
+    }
+    return methods;
+  }
+
+  @Override
+  public <T> Constructor<T> getInjectableConstructor(Class<T> type) {
+    var parameters = constructors.get(type.getName());
+    if (parameters != null) {
+      try {
+        return type.getDeclaredConstructor(loadClasses(parameters));
+      } catch (NoSuchMethodException e) {
+        // the type changed after it was indexed, look it up as if it wasn't
+      }
+    }
+    return ReflectionsHelper.getInjectableConstructor(type);
+  }
+
+  private Class<?>[] loadClasses(String[] names) {
+    var classes = new Class<?>[names.length];
+    for (int i = 0; i < names.length; i++)
+      classes[i] = loadClass(names[i]);
+    return classes;
+  }
+
+  private Class<?> loadClass(String name) {
+    var primitive = PRIMITIVES.get(name);
+    if (primitive != null)
+      return primitive;
+    try {
+      return Class.forName(name, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw new ReflectionsException("Could not load the indexed class " + name, e);
+    }
+  }
+
+  private Class<?> findClass(String name) {
+    try {
+      return Class.forName(name, false, classLoader);
+    } catch (ClassNotFoundException | LinkageError e) {
+      return null;
+    }
+  }
+
+  private static String[] split(String list) {
+    return list.isEmpty() ? new String[0] : list.split(LIST_SEPARATOR);
+  }
+
+  private static ClassLoader getDefaultClassLoader() {
+    var classLoader = Thread.currentThread().getContextClassLoader();
+    return classLoader != null ? classLoader : CompiledBeanIndex.class.getClassLoader();
+  }
+}
@@ -0,0 +1,57 @@
+package jedi.index;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Maps every indexed type to the concrete classes assignable to it, through any depth of superclasses and interfaces.
+ */
+class ImplementationIndex {
+  private final Map<String, Set<Class<?>>> implementations;
+  private final Set<Class<?>>              all;
+
+  /**
+   * @param subTypes the direct subtypes of each type, by name
+   * @param concreteClass loads the named class when it is a concrete bean class, returns null otherwise
+   */
+  ImplementationIndex(Map<String, ? extends Collection<String>> subTypes, Function<String, Class<?>> concreteClass) {
+    var superTypes = new HashMap<String, List<String>>();
+    subTypes.forEach((superType, types) ->
+        types.forEach(t -> superTypes.computeIfAbsent(t, k -> new ArrayList<>()).add(superType)));
+
+    var index = new HashMap<String, Set<Class<?>>>();
+    var pending = new ArrayDeque<String>();
+    var visited = new HashSet<String>();
+    var concrete = new LinkedHashSet<Class<?>>();
+    for (var type : superTypes.keySet()) {
+      var implementation = concreteClass.apply(type);
+      if (implementation == null)
+        continue;
+      concrete.add(implementation);
+      pending.add(type);
+      visited.clear();
+      while (!pending.isEmpty()) {
+        for (var superType : superTypes.getOrDefault(pending.poll(), List.of())) {
+          if (visited.add(superType)) {
+            index.computeIfAbsent(superType, k -> new LinkedHashSet<>()).add(implementation);
+            pending.add(superType);
+          }
+        }
+      }
+    }
+    index.replaceAll((type, types) -> Collections.unmodifiableSet(types));
+    implementations = Map.copyOf(index);
+    all = Collections.unmodifiableSet(concrete);
+  }
+
+  Set<Class<?>> get(Class<?> type) {
+    return implementations.getOrDefault(type.getName(), Set.of());
+  }
+
+  /**
+   * Every concrete class of the index.
+   */
+  Set<Class<?>> getAll() {
+    return all;
+  }
+}
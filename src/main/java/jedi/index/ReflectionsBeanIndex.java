@@ -0,0 +1,125 @@
+package jedi.index;
+
+import jakarta.enterprise.inject.Produces;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.ClassFile;
+import jedi.ReflectionsHelper;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanner;
+import org.reflections.scanners.Scanners;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static jedi.ReflectionsHelper.isAbstraction;
+
+import static org.reflections.scanners.Scanners.MethodsAnnotated;
+import static org.reflections.scanners.Scanners.SubTypes;
+
+public class ReflectionsBeanIndex implements BeanIndex {
+  /**
+   * The scanners whose results this index queries.
+   */
+  public static final Scanners[] SCANNERS = { SubTypes, MethodsAnnotated };
+
+  /**
+   * Records the concrete classes with no super type but {@link Object}, which the subtypes scanner leaves out.
+   */
+  public static final Scanner BEAN_CLASSES = new BeanClasses();
+
+  private final Reflections            reflections;
+  private final ScanReport             scanReport;
+  private final ImplementationIndex    implementations;
+  private volatile Set<Class<?>>       beanClasses;
+
+  public ReflectionsBeanIndex(Reflections reflections) {
+    this(reflections, null);
+  }
+
+  public ReflectionsBeanIndex(Reflections reflections, ScanReport scanReport) {
+    this.reflections = reflections;
+    this.scanReport = scanReport;
+    var classLoaders = reflections.getConfiguration().getClassLoaders();
+    implementations = new ImplementationIndex(
+        reflections.getStore().getOrDefault(SubTypes.index(), Map.of()),
+        name -> {
+          var type = reflections.forClass(name, classLoaders);
+          // anonymous classes are never beans, the compiled index doesn't see them either
+          return type != null && !isAbstraction(type) && !type.isAnonymousClass() ? type : null;
+        });
+  }
+
+  /**
+   * The given scanners and {@link #BEAN_CLASSES}, for every bean class to be in the index.
+   */
+  public static Scanner[] withBeanClasses(Scanners... scanners) {
+    var all = Arrays.copyOf(scanners, scanners.length + 1, Scanner[].class);
+    all[scanners.length] = BEAN_CLASSES;
+    return all;
+  }
+
+  public Reflections getReflections() {
+    return reflections;
+  }
+
+  /**
+   * The report of the scan that built this index, if it was run through a {@link ClasspathScan}.
+   */
+  public ScanReport getScanReport() {
+    return scanReport;
+  }
+
+  @Override
+  public Set<Class<?>> getImplementations(Class<?> type) {
+    return implementations.get(type);
+  }
+
+  /**
+   * The concrete classes with a super type other than {@link Object}, and the ones recorded by {@link #BEAN_CLASSES}
+   * when it was part of the scan.
+   */
+  @Override
+  public Set<Class<?>> getBeanClasses() {
+    var classes = beanClasses;
+    if (classes == null) {
+      classes = new LinkedHashSet<>(implementations.getAll());
+      var classLoaders = reflections.getConfiguration().getClassLoaders();
+      for (var name : reflections.getStore().getOrDefault(BEAN_CLASSES.index(), Map.of()).keySet()) {
+        var type = reflections.forClass(name, classLoaders);
+        if (type != null && !type.isAnonymousClass())
+          classes.add(type);
+      }
+      beanClasses = classes = Collections.unmodifiableSet(classes);
+    }
+    return classes;
+  }
+
+  @Override
+  public Set<Method> getProducerMethods() {
+    return reflections.get(MethodsAnnotated.with(Produces.class).as(Method.class));
+  }
+
+  @Override
+  public <T> Constructor<T> getInjectableConstructor(Class<T> type) {
+    return ReflectionsHelper.getInjectableConstructor(type);
+  }
+
+  private static class BeanClasses implements Scanner {
+    private static final int NOT_CONCRETE = AccessFlag.ABSTRACT | AccessFlag.INTERFACE | AccessFlag.ANNOTATION
+        | AccessFlag.ENUM;
+
+    @Override
+    public List<Map.Entry<String, String>> scan(ClassFile classFile) {
+      if ((classFile.getAccessFlags() & NOT_CONCRETE) != 0 || classFile.getInterfaces().length > 0
+          || !Object.class.getName().equals(classFile.getSuperclass()))
+        return List.of();
+      return List.of(entry(classFile.getName(), classFile.getName()));
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package jedi.index;
+
+import org.reflections.Reflections;
+import org.reflections.Store;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link Reflections} metadata of a package scan on disk, keyed by a fingerprint of the scanned jars and
+ * directories. The scan is only repeated when the fingerprint changes. A scan of a location that is neither a file
+ * nor a jar, and that tells neither its size nor its modification time, is never cached.
+ * <p>
+ * {@link jedi.JeDI} uses it when the {@value #DIRECTORY_PROPERTY} system property points to the cache directory.
+ */
+public class ScanCache {
+  public static final String DIRECTORY_PROPERTY = "jedi.scan.cache";
+
+  private static final int MAGIC   = 0x4a454449; // JEDI
+  private static final int VERSION = 2;
+
+  private final Path directory;
+
+  public ScanCache(Path directory) {
+    this.directory = directory;
+  }
+
+  public Reflections scan(String prefix, Scanners... scanners) {
+    var file = getCacheFile(prefix, scanners);
+    var fingerprint = fingerprint(ClasspathHelper.forPackage(prefix));
+    if (fingerprint == null)
+      return new Reflections(prefix, ReflectionsBeanIndex.withBeanClasses(scanners));
+    var store = read(file, fingerprint);
+    if (store != null)
+      return new Reflections(store);
+    var reflections = new Reflections(prefix, ReflectionsBeanIndex.withBeanClasses(scanners));
+    write(file, fingerprint, reflections.getStore());
+    return reflections;
+  }
+
+  Path getCacheFile(String prefix, Scanners... scanners) {
+    var key = prefix + Arrays.stream(scanners).map(Scanners::name).sorted().collect(Collectors.joining(",", "[", "]"));
+    return directory.resolve(toHex(sha256(key.getBytes(StandardCharsets.UTF_8))) + ".scan");
+  }
+
+  // Hashes the path, size and modification time of the given jars and of every file in the given directories, and the
+  // size and modification time the other locations tell. Returns null when one of them tells neither.
+  static byte[] fingerprint(Collection<URL> urls) {
+    var digest = newDigest();
+    var roots = new TreeSet<Path>();
+    var others = new TreeSet<String>();
+    for (var url : urls) {
+      var path = toPath(url);
+      if (path != null) {
+        roots.add(path);
+        continue;
+      }
+      var stamp = stamp(url);
+      if (stamp == null)
+        return null;
+      others.add(url + "|" + stamp + "\n");
+    }
+    others.forEach(o -> digest.update(o.getBytes(StandardCharsets.UTF_8)));
+    roots.forEach(root -> {
+      try (Stream<Path> files = Files.isDirectory(root) ? Files.walk(root) : Stream.of(root)) {
+        files.sorted().forEach(f -> {
+          try {
+            var attributes = Files.readAttributes(f, BasicFileAttributes.class);
+            digest.update((f + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis() + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+          } catch (IOException e) {
+            digest.update((f + "|missing\n").getBytes(StandardCharsets.UTF_8));
+          }
+        });
+      } catch (IOException | UncheckedIOException e) {
+        digest.update((root + "|unreadable\n").getBytes(StandardCharsets.UTF_8));
+      }
+    });
+    return digest.digest();
+  }
+
+  private static Path toPath(URL url) {
+    try {
+      return "file".equals(url.getProtocol()) ? Path.of(url.toURI()) : null;
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  // The size and modification time of a location that is not a file: the jar file of a jar URL, what the connection
+  // tells otherwise.
+  private static String stamp(URL url) {
+    try {
+      var connection = url.openConnection();
+      if (connection instanceof JarURLConnection) {
+        var jar = toPath(((JarURLConnection) connection).getJarFileURL());
+        if (jar != null) {
+          var attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+          return attributes.size() + "|" + attributes.lastModifiedTime().toMillis();
+        }
+      }
+      connection.setUseCaches(false);
+      var size = connection.getContentLengthLong();
+      var modified = connection.getLastModified();
+      if (connection instanceof HttpURLConnection)
+        ((HttpURLConnection) connection).disconnect();
+      return size < 0 && modified == 0 ? null : size + "|" + modified;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private Store read(Path file, byte[] fingerprint) {
+    if (!Files.isRegularFile(file))
+      return null;
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+        return null;
+      var storedFingerprint = new byte[fingerprint.length];
+      buffer.get(storedFingerprint);
+      if (!Arrays.equals(fingerprint, storedFingerprint))
+        return null;
+      return readStore(buffer);
+    } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+      return null;
+    }
+  }
+
+  // <strings> <index count> (<index> <key count> (<key> <value count> <value>*)*)*, strings referenced by position
+  private static Store readStore(ByteBuffer buffer) {
+    var strings = new String[buffer.getInt()];
+    for (int i = 0; i < strings.length; i++) {
+      var bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    var store = new Store();
+    for (int indexCount = buffer.getInt(); indexCount > 0; indexCount--) {
+      var index = new HashMap<String, Set<String>>();
+      store.put(strings[buffer.getInt()], index);
+      for (int keyCount = buffer.getInt(); keyCount > 0; keyCount--) {
+        var key = strings[buffer.getInt()];
+        var values = new HashSet<String>();
+        for (int valueCount = buffer.getInt(); valueCount > 0; valueCount--)
+          values.add(strings[buffer.getInt()]);
+        index.put(key, values);
+      }
+    }
+    return store;
+  }
+
+  private void write(Path file, byte[] fingerprint, Store store) {
+    var strings = new LinkedHashMap<String, Integer>();
+    store.forEach((index, entries) -> {
+      strings.putIfAbsent(index, strings.size());
+      entries.forEach((key, values) -> {
+        strings.putIfAbsent(key, strings.size());
+        values.forEach(v -> strings.putIfAbsent(v, strings.size()));
+      });
+    });
+    Path tmp = null;
+    try {
+      Files.createDirectories(directory);
+      tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.write(fingerprint);
+        out.writeInt(strings.size());
+        for (var s : strings.keySet()) {
+          var bytes = s.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(bytes.length);
+          out.write(bytes);
+        }
+        out.writeInt(store.size());
+        for (var index : store.entrySet()) {
+          out.writeInt(strings.get(index.getKey()));
+          out.writeInt(index.getValue().size());
+          for (var entry : index.getValue().entrySet()) {
+            out.writeInt(strings.get(entry.getKey()));
+            out.writeInt(entry.getValue().size());
+            for (var value : entry.getValue())
+              out.writeInt(strings.get(value));
+          }
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      // The cache is only an optimization, a read-only directory must not prevent the container from starting.
+      if (tmp != null)
+        tmp.toFile().delete();
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static byte[] sha256(byte[] bytes) {
+    return newDigest().digest(bytes);
+  }
+
+  private static String toHex(byte[] bytes) {
+    var hex = new StringBuilder();
+    for (var b : bytes)
+      hex.append(String.format("%02x", b));
+    return hex.toString();
+  }
+}
@@ -0,0 +1,32 @@
+package jedi.index;
+
+import java.time.Duration;
+
+public class ScanReport {
+  private final long durationNanos;
+  private final int  scannedUrls;
+  private final long scannedClasses;
+
+  public ScanReport(long durationNanos, int scannedUrls, long scannedClasses) {
+    this.durationNanos = durationNanos;
+    this.scannedUrls = scannedUrls;
+    this.scannedClasses = scannedClasses;
+  }
+
+  public Duration getDuration() {
+    return Duration.ofNanos(durationNanos);
+  }
+
+  public int getScannedUrls() {
+    return scannedUrls;
+  }
+
+  public long getScannedClasses() {
+    return scannedClasses;
+  }
+
+  @Override
+  public String toString() {
+    return "Scanned " + scannedClasses + " classes from " + scannedUrls + " urls in " + getDuration().toMillis() + " ms";
+  }
+}
@@ -0,0 +1,88 @@
+package jedi.injection.producer;
+
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.spi.InjectionPoint;
+import jakarta.enterprise.inject.spi.Producer;
+import jedi.bean.ManagedBean;
+import org.reflections.ReflectionsException;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import static jedi.ReflectionsHelper.cast;
+
+/**
+ * A {@link ConstructorProducer} whose graph is compiled by the {@link GraphCompiler} the first time it is produced.
+ * Beans only ever created as a dependency of another compiled bean are never compiled on their own.
+ * <p>
+ * The beans the compiled graph constructs itself don't go through {@link ManagedBean#create}: their creation counters
+ * are incremented here instead, and they emit no {@link jedi.jfr.CreationEvent}.
+ */
+public class CompiledProducer<T> implements Producer<T>, Disposable {
+  private static final LongAdder[] NO_COUNTERS = new LongAdder[0];
+
+  private final ConstructorProducer<T>   producer;
+  private LongAdder[]                    inlinedCounters = NO_COUNTERS;
+  private volatile GraphCompiler.Factory factory;
+
+  public CompiledProducer(ConstructorProducer<T> producer) {
+    this.producer = producer;
+  }
+
+  public ConstructorProducer<T> getProducer() {
+    return producer;
+  }
+
+  GraphCompiler.Factory getFactory() {
+    return factory;
+  }
+
+  @Override
+  public T produce(CreationalContext<T> creationalContext) {
+    var f = factory;
+    if (f == null)
+      f = compile();
+    try {
+      T instance = cast(f.create(creationalContext));
+      // written before the factory, so visible once the factory is
+      for (var counter : inlinedCounters)
+        counter.increment();
+      return instance;
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Exception e) {
+      // a checked exception of a constructor, thrown undeclared by the generated code
+      throw new ReflectionsException(e);
+    }
+  }
+
+  private synchronized GraphCompiler.Factory compile() {
+    if (factory == null) {
+      var inlined = new ArrayList<ManagedBean<?>>();
+      var compiled = GraphCompiler.compile(producer, inlined);
+      var counters = new ArrayList<LongAdder>();
+      for (var bean : inlined)
+        if (bean.getCreationCounter() != null)
+          counters.add(bean.getCreationCounter());
+      inlinedCounters = counters.toArray(NO_COUNTERS);
+      factory = compiled != null ? compiled : context -> producer.produce(cast(context));
+    }
+    return factory;
+  }
+
+  @Override
+  public boolean hasDisposal() {
+    return producer.hasDisposal();
+  }
+
+  @Override
+  public void dispose(T t) {
+    producer.dispose(t);
+  }
+
+  @Override
+  public Set<InjectionPoint> getInjectionPoints() {
+    return producer.getInjectionPoints();
+  }
+}
@@ -1,41 +1,91 @@
 package jedi.injection.producer;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.spi.CreationalContext;
 import jakarta.enterprise.inject.spi.InjectionPoint;
 import jakarta.enterprise.inject.spi.Producer;
+import org.reflections.ReflectionsException;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
 
-import static jedi.ReflectionsHelper.newInstance;
-
-public class ConstructorProducer<T> implements Producer<T> {
-  private final Constructor<T> constructor;
+public class ConstructorProducer<T> implements Producer<T>, Disposable {
+  private final Constructor<T>      constructor;
+  private final Instantiator<T>     instantiator;
   private final Set<InjectionPoint> injectionPoints;
+  private final Dependencies        dependencies;
+  private final List<Method>        preDestroyMethods;
 
   public ConstructorProducer(Constructor<T> constructor, Set<InjectionPoint> injectionPoints) {
+    this(constructor, injectionPoints, null);
+  }
+
+  /**
+   * @param executor where to create the independent arguments of the constructor concurrently, null to create them
+   *                 one after another
+   */
+  public ConstructorProducer(Constructor<T> constructor, Set<InjectionPoint> injectionPoints, Executor executor) {
     this.constructor = constructor;
+    this.instantiator = Instantiator.of(constructor);
     this.injectionPoints = injectionPoints;
+    this.dependencies = new Dependencies(injectionPoints, executor);
+    this.preDestroyMethods = findPreDestroyMethods(constructor.getDeclaringClass());
   }
 
-  @Override
-  public T produce(CreationalContext<T> creationalContext) {
-    return newInstance(constructor, getConstructorArgs());
+  // Superclass methods first, skipping the ones overridden by a subclass.
+  private static List<Method> findPreDestroyMethods(Class<?> type) {
+    var methods = new ArrayList<Method>();
+    var overridden = new HashSet<String>();
+    for (var c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (var m : c.getDeclaredMethods()) {
+        var isPrivate = Modifier.isPrivate(m.getModifiers());
+        if (m.isAnnotationPresent(PreDestroy.class) && m.getParameterCount() == 0
+            && !Modifier.isStatic(m.getModifiers()) && (isPrivate || !overridden.contains(m.getName()))) {
+          m.trySetAccessible();
+          methods.add(m);
+        }
+        if (!isPrivate && m.getParameterCount() == 0)
+          overridden.add(m.getName());
+      }
+    }
+    Collections.reverse(methods);
+    return methods.isEmpty() ? List.of() : methods;
   }
 
-  private List<Object> getConstructorArgs() {
-    return injectionPoints.stream().map(this::resolveArgs).collect(Collectors.toList());
+  public Constructor<T> getConstructor() {
+    return constructor;
   }
 
-  private Object resolveArgs(InjectionPoint injectionPoint) {
-    return injectionPoint.getBean().create(null);
+  @Override
+  public T produce(CreationalContext<T> creationalContext) {
+    return instantiator.newInstance(dependencies.create(creationalContext));
+  }
+
+  @Override
+  public boolean hasDisposal() {
+    return !preDestroyMethods.isEmpty();
   }
 
+  /**
+   * Calls the {@link PreDestroy} methods of the instance.
+   */
   @Override
   public void dispose(T t) {
-    //do nothing
+    for (var m : preDestroyMethods) {
+      try {
+        m.invoke(t);
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        throw new ReflectionsException(e);
+      }
+    }
   }
 
   @Override
@@ -0,0 +1,180 @@
+package jedi.injection.producer;
+
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.CreationException;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.InjectionPoint;
+import jedi.bean.ScopedBean;
+import jedi.context.CreationalContextImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static jedi.context.CreationalContextImpl.createDependent;
+import static jedi.context.CreationalContextImpl.isDependent;
+
+/**
+ * The beans of a producer's injection points, in parameter order, resolved once so that creating the arguments is a
+ * plain loop over an array. Dependent arguments are recorded in the creational context of the instance they are
+ * created for.
+ * <p>
+ * Given an executor, the arguments are split in groups that share no scoped bean anywhere in their dependency
+ * graphs, and the groups are created concurrently, the first one on the calling thread. Arguments sharing a scoped
+ * bean stay in the same group, so they never wait on each other for its creation.
+ */
+final class Dependencies {
+  private static final Object[] NONE = new Object[0];
+
+  private final Bean<?>[] beans;
+  private final int[][]   groups;
+  private final Executor  executor;
+
+  Dependencies(Set<InjectionPoint> injectionPoints) {
+    this(injectionPoints, null);
+  }
+
+  Dependencies(Set<InjectionPoint> injectionPoints, Executor executor) {
+    beans = injectionPoints.stream().map(InjectionPoint::getBean).toArray(Bean<?>[]::new);
+    groups = executor != null && beans.length > 1 ? group(beans) : null;
+    this.executor = groups != null && groups.length > 1 ? executor : null;
+  }
+
+  Object[] create(CreationalContext<?> creationalContext) {
+    if (beans.length == 0)
+      return NONE;
+    if (executor != null)
+      return createConcurrently(creationalContext);
+    var args = new Object[beans.length];
+    for (int i = 0; i < beans.length; i++)
+      args[i] = createDependent(beans[i], creationalContext);
+    return args;
+  }
+
+  /**
+   * The number of groups of arguments created concurrently, 1 when they are created one after another.
+   */
+  int getConcurrency() {
+    return executor != null ? groups.length : 1;
+  }
+
+  // Each group records its dependents in a context of its own, added to the parent's once all the groups are done.
+  private Object[] createConcurrently(CreationalContext<?> creationalContext) {
+    var args = new Object[beans.length];
+    var tracked = creationalContext instanceof CreationalContextImpl;
+    var contexts = new CreationalContextImpl<?>[groups.length];
+    var tasks = new CompletableFuture<?>[groups.length];
+    for (int g = 1; g < groups.length; g++) {
+      var group = groups[g];
+      if (tracked)
+        contexts[g] = new CreationalContextImpl<>();
+      CreationalContext<?> context = tracked ? contexts[g] : creationalContext;
+      tasks[g] = CompletableFuture.runAsync(() -> create(group, args, context), executor);
+    }
+
+    RuntimeException failure = null;
+    try {
+      create(groups[0], args, creationalContext);
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+    for (int g = 1; g < groups.length; g++) {
+      try {
+        tasks[g].join();
+      } catch (CompletionException e) {
+        failure = addFailure(failure, unwrap(e));
+      }
+    }
+
+    if (failure != null) {
+      for (var context : contexts)
+        if (context != null)
+          context.release();
+      throw failure;
+    }
+    for (var context : contexts)
+      if (context != null)
+        ((CreationalContextImpl<?>) creationalContext).addDependents(context);
+    return args;
+  }
+
+  private void create(int[] group, Object[] args, CreationalContext<?> creationalContext) {
+    for (var i : group)
+      args[i] = createDependent(beans[i], creationalContext);
+  }
+
+  private static RuntimeException unwrap(CompletionException e) {
+    var cause = e.getCause();
+    if (cause instanceof RuntimeException)
+      return (RuntimeException) cause;
+    if (cause instanceof Error)
+      throw (Error) cause;
+    return new CreationException(cause);
+  }
+
+  private static RuntimeException addFailure(RuntimeException failure, RuntimeException e) {
+    if (failure == null)
+      return e;
+    failure.addSuppressed(e);
+    return failure;
+  }
+
+  // Unites the arguments whose graphs reach a same scoped bean, keeping the parameter order within each group.
+  private static int[][] group(Bean<?>[] beans) {
+    var reached = new ArrayList<Set<Bean<?>>>();
+    var roots = new int[beans.length];
+    for (int i = 0; i < beans.length; i++) {
+      var scoped = new HashSet<Bean<?>>();
+      collectScoped(beans[i], scoped, new HashSet<>());
+      reached.add(scoped);
+      roots[i] = i;
+      for (int j = 0; j < i; j++) {
+        if (overlap(reached.get(j), scoped)) {
+          var a = root(roots, i);
+          var b = root(roots, j);
+          roots[Math.max(a, b)] = Math.min(a, b);
+        }
+      }
+    }
+
+    var groups = new ArrayList<List<Integer>>();
+    var groupOfRoot = new int[beans.length];
+    Arrays.fill(groupOfRoot, -1);
+    for (int i = 0; i < beans.length; i++) {
+      var root = root(roots, i);
+      if (groupOfRoot[root] < 0) {
+        groupOfRoot[root] = groups.size();
+        groups.add(new ArrayList<>());
+      }
+      groups.get(groupOfRoot[root]).add(i);
+    }
+    return groups.stream().map(g -> g.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+  }
+
+  private static int root(int[] roots, int i) {
+    while (roots[i] != i)
+      i = roots[i];
+    return i;
+  }
+
+  private static boolean overlap(Set<Bean<?>> a, Set<Bean<?>> b) {
+    for (var bean : b)
+      if (a.contains(bean))
+        return true;
+    return false;
+  }
+
+  private static void collectScoped(Bean<?> bean, Set<Bean<?>> scoped, Set<Bean<?>> visited) {
+    if (bean == null || !visited.add(bean))
+      return;
+    if (!isDependent(bean))
+      scoped.add(bean instanceof ScopedBean ? ((ScopedBean<?>) bean).getBean() : bean);
+    for (var injectionPoint : bean.getInjectionPoints())
+      collectScoped(injectionPoint.getBean(), scoped, visited);
+  }
+}
@@ -0,0 +1,9 @@
+package jedi.injection.producer;
+
+/**
+ * Implemented by the producers and beans telling whether disposing of their instances does anything, so that
+ * instances with nothing to destroy don't need to be tracked.
+ */
+public interface Disposable {
+  boolean hasDisposal();
+}
@@ -0,0 +1,207 @@
+package jedi.injection.producer;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.spi.Bean;
+import jedi.GeneratedClasses;
+import jedi.bean.ManagedBean;
+import jedi.context.CreationalContextImpl;
+import javassist.bytecode.*;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Generates one class per root bean whose {@link Factory#create} is the whole {@code @Dependent} constructor graph
+ * of that bean written as nested {@code new} expressions, which the JIT can inline and escape-analyze as a whole.
+ * <p>
+ * Beans the generated code can't construct itself are created through their {@link Bean}: producer methods,
+ * non-dependent scopes, beans with something to destroy, constructors not accessible from the root's package, and
+ * whatever goes beyond {@link #MAX_NODES} constructors. The class is defined by {@link GeneratedClasses} in the root's
+ * package.
+ */
+public class GraphCompiler {
+  public static final String ENABLED_PROPERTY = "jedi.compiled";
+  public static final int    MAX_NODES        = 256;
+
+  private static final String SUFFIX      = "$$JeDIFactory";
+  private static final String BEAN        = Bean.class.getName();
+  private static final String BEANS_DESC  = "[L" + BEAN.replace('.', '/') + ";";
+  private static final String CONTEXT     = "L" + CreationalContext.class.getName().replace('.', '/') + ";";
+  private static final String CREATE_DESC = "(" + CONTEXT + ")Ljava/lang/Object;";
+  private static final String DEPENDENT   = "(L" + Contextual.class.getName().replace('.', '/') + ";" + CONTEXT
+      + ")Ljava/lang/Object;";
+
+  @FunctionalInterface
+  public interface Factory {
+    Object create(CreationalContext<?> context);
+  }
+
+  private final Class<?>             host;
+  private final List<Bean<?>>        delegates = new ArrayList<>();
+  private final List<ManagedBean<?>> inlined   = new ArrayList<>();
+  private final Bytecode             code;
+  private final ClassFile            file;
+  private       int                  nodes;
+
+  private GraphCompiler(Class<?> host, String className) {
+    this.host = host;
+    file = new ClassFile(false, className, null);
+    file.setMajorVersion(ClassFile.JAVA_8);
+    file.setAccessFlags(AccessFlag.PUBLIC | AccessFlag.FINAL | AccessFlag.SUPER);
+    file.setInterfaces(new String[] { Factory.class.getName() });
+    code = new Bytecode(file.getConstPool(), 0, 2);
+  }
+
+  /**
+   * Compiles the graph of the given producer, or returns null when its own constructor can't be called from
+   * generated code.
+   *
+   * @param inlined receives the beans whose constructor the factory calls itself, once per call, the root excepted
+   */
+  public static Factory compile(ConstructorProducer<?> root, List<ManagedBean<?>> inlined) {
+    var host = root.getConstructor().getDeclaringClass();
+    var compiler = new GraphCompiler(host, GeneratedClasses.name(host, SUFFIX));
+    if (!compiler.isInlinable(root))
+      return null;
+    compiler.construct(root);
+    compiler.code.addOpcode(Opcode.ARETURN);
+    try {
+      var factory = compiler.define();
+      inlined.addAll(compiler.inlined);
+      return factory;
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  private void emit(Bean<?> bean, Class<?> type) {
+    var producer = getConstructorProducer(bean);
+    if (producer != null && nodes < MAX_NODES && isInlinable(producer)) {
+      inlined.add((ManagedBean<?>) bean);
+      construct(producer);
+    } else {
+      delegate(bean);
+      code.addCheckcast(type.getName());
+    }
+  }
+
+  // new Type(<dependency>, ...)
+  private void construct(ConstructorProducer<?> producer) {
+    nodes++;
+    var constructor = producer.getConstructor();
+    var type = constructor.getDeclaringClass().getName();
+    code.addNew(type);
+    code.addOpcode(Opcode.DUP);
+    var parameters = constructor.getParameterTypes();
+    var i = 0;
+    for (var injectionPoint : producer.getInjectionPoints())
+      emit(injectionPoint.getBean(), parameters[i++]);
+    code.addInvokespecial(type, MethodInfo.nameInit, descriptor(constructor));
+  }
+
+  // CreationalContextImpl.createDependent(beans[i], context)
+  private void delegate(Bean<?> bean) {
+    code.addAload(0);
+    code.addGetfield(file.getName(), "beans", BEANS_DESC);
+    code.addIconst(delegates.size());
+    code.addOpcode(Opcode.AALOAD);
+    code.addAload(1);
+    code.addInvokestatic(CreationalContextImpl.class.getName(), "createDependent", DEPENDENT);
+    delegates.add(bean);
+  }
+
+  private static ConstructorProducer<?> getConstructorProducer(Bean<?> bean) {
+    if (!(bean instanceof ManagedBean) || bean.getScope() != Dependent.class || ((ManagedBean<?>) bean).hasDisposal())
+      return null;
+    var producer = ((ManagedBean<?>) bean).getProducer();
+    if (producer instanceof CompiledProducer)
+      producer = ((CompiledProducer<?>) producer).getProducer();
+    return producer instanceof ConstructorProducer ? (ConstructorProducer<?>) producer : null;
+  }
+
+  private boolean isInlinable(ConstructorProducer<?> producer) {
+    var constructor = producer.getConstructor();
+    var type = constructor.getDeclaringClass();
+    if (!isAccessible(type) || Modifier.isAbstract(type.getModifiers()) || !isAccessible(constructor)
+        || producer.getInjectionPoints().size() != constructor.getParameterCount())
+      return false;
+    for (var parameter : constructor.getParameterTypes())
+      if (parameter.isPrimitive() || !isAccessible(parameter))
+        return false;
+    for (var injectionPoint : producer.getInjectionPoints())
+      if (injectionPoint.getBean() == null)
+        return false;
+    return true;
+  }
+
+  private boolean isAccessible(Class<?> type) {
+    while (type.isArray())
+      type = type.getComponentType();
+    if (type.isPrimitive())
+      return true;
+    if (!isVisible(type))
+      return false;
+    // nested classes are public or package private in the class file, whatever their source modifiers
+    return isSamePackage(type) || Modifier.isPublic(type.getModifiers()) || Modifier.isProtected(type.getModifiers());
+  }
+
+  private boolean isAccessible(Constructor<?> constructor) {
+    var modifiers = constructor.getModifiers();
+    return Modifier.isPublic(modifiers)
+        || !Modifier.isPrivate(modifiers) && isSamePackage(constructor.getDeclaringClass());
+  }
+
+  private boolean isSamePackage(Class<?> type) {
+    return type.getClassLoader() == host.getClassLoader() && type.getPackageName().equals(host.getPackageName());
+  }
+
+  // The generated class resolves its types through the host's class loader.
+  private boolean isVisible(Class<?> type) {
+    try {
+      return Class.forName(type.getName(), false, host.getClassLoader()) == type;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  private Factory define() throws Throwable {
+    addConstructor();
+    var create = new MethodInfo(file.getConstPool(), "create", CREATE_DESC);
+    create.setAccessFlags(AccessFlag.PUBLIC);
+    create.setCodeAttribute(code.toCodeAttribute());
+    file.addMethod(create);
+    var beans = new FieldInfo(file.getConstPool(), "beans", BEANS_DESC);
+    beans.setAccessFlags(AccessFlag.PRIVATE | AccessFlag.FINAL);
+    file.addField(beans);
+
+    var lookup = GeneratedClasses.define(host, file);
+    return (Factory) lookup.findConstructor(lookup.lookupClass(), methodType(void.class, Bean[].class))
+        .invoke(delegates.toArray(new Bean<?>[0]));
+  }
+
+  // public <init>(Bean[] beans) { this.beans = beans; }
+  private void addConstructor() throws DuplicateMemberException {
+    var init = new Bytecode(file.getConstPool(), 0, 2);
+    init.addAload(0);
+    init.addInvokespecial(Object.class.getName(), MethodInfo.nameInit, "()V");
+    init.addAload(0);
+    init.addAload(1);
+    init.addPutfield(file.getName(), "beans", BEANS_DESC);
+    init.addReturn(null);
+    var method = new MethodInfo(file.getConstPool(), MethodInfo.nameInit, "(" + BEANS_DESC + ")V");
+    method.setAccessFlags(AccessFlag.PUBLIC);
+    method.setCodeAttribute(init.toCodeAttribute());
+    file.addMethod(method);
+  }
+
+  private static String descriptor(Constructor<?> constructor) {
+    return MethodType.methodType(void.class, constructor.getParameterTypes()).toMethodDescriptorString();
+  }
+}
@@ -0,0 +1,209 @@
+package jedi.injection.producer;
+
+import org.reflections.ReflectionsException;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+import static jedi.ReflectionsHelper.cast;
+
+/**
+ * Creates instances of a class through its constructor, compiled once into a factory of fixed arity.
+ * <p>
+ * Constructors of up to four parameters get a {@link LambdaMetafactory} generated factory, so an instance costs an
+ * interface call on top of the {@code new} itself. Longer constructors go through a spread {@link MethodHandle}, and
+ * the reflective path is only kept for constructors the container is not allowed to look up.
+ * <p>
+ * Whatever the path, the unchecked exceptions of a constructor are thrown as they are, and the checked ones wrapped in
+ * a {@link ReflectionsException}.
+ */
+public abstract class Instantiator<T> {
+
+  public abstract T newInstance(Object[] args);
+
+  public static <T> Instantiator<T> of(Constructor<T> constructor) {
+    MethodHandles.Lookup lookup;
+    MethodHandle handle;
+    try {
+      lookup = MethodHandles.privateLookupIn(constructor.getDeclaringClass(), MethodHandles.lookup());
+      handle = lookup.unreflectConstructor(constructor);
+    } catch (IllegalAccessException | RuntimeException e) {
+      return new ReflectiveInstantiator<>(constructor);
+    }
+    try {
+      switch (handle.type().parameterCount()) {
+        case 0: return new Instantiator0<>(factory(lookup, handle, Factory0.class));
+        case 1: return new Instantiator1<>(factory(lookup, handle, Factory1.class));
+        case 2: return new Instantiator2<>(factory(lookup, handle, Factory2.class));
+        case 3: return new Instantiator3<>(factory(lookup, handle, Factory3.class));
+        case 4: return new Instantiator4<>(factory(lookup, handle, Factory4.class));
+        default: break;
+      }
+    } catch (Throwable e) {
+      // the factory could not be spun, the method handle does the same job a little slower
+    }
+    return new HandleInstantiator<>(handle);
+  }
+
+  // Primitive parameters are declared as their wrapper so the generated factory unboxes the erased arguments.
+  private static <F> F factory(MethodHandles.Lookup lookup, MethodHandle constructor, Class<F> factoryType)
+      throws Throwable {
+    var type = constructor.type();
+    var callSite = LambdaMetafactory.metafactory(lookup, "create",
+        MethodType.methodType(factoryType),
+        MethodType.genericMethodType(type.parameterCount()),
+        constructor,
+        type.wrap());
+    return factoryType.cast(callSite.getTarget().invoke());
+  }
+
+  // The factories are generated from the constructor, so they throw its checked exceptions undeclared.
+  private static RuntimeException rethrow(Throwable e) {
+    if (e instanceof RuntimeException)
+      return (RuntimeException) e;
+    if (e instanceof Error)
+      throw (Error) e;
+    return new ReflectionsException(e);
+  }
+
+  @FunctionalInterface
+  public interface Factory0 { Object create(); }
+
+  @FunctionalInterface
+  public interface Factory1 { Object create(Object a); }
+
+  @FunctionalInterface
+  public interface Factory2 { Object create(Object a, Object b); }
+
+  @FunctionalInterface
+  public interface Factory3 { Object create(Object a, Object b, Object c); }
+
+  @FunctionalInterface
+  public interface Factory4 { Object create(Object a, Object b, Object c, Object d); }
+
+  private static class Instantiator0<T> extends Instantiator<T> {
+    private final Factory0 factory;
+
+    Instantiator0(Factory0 factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public T newInstance(Object[] args) {
+      try {
+        return cast(factory.create());
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+  }
+
+  private static class Instantiator1<T> extends Instantiator<T> {
+    private final Factory1 factory;
+
+    Instantiator1(Factory1 factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public T newInstance(Object[] args) {
+      try {
+        return cast(factory.create(args[0]));
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+  }
+
+  private static class Instantiator2<T> extends Instantiator<T> {
+    private final Factory2 factory;
+
+    Instantiator2(Factory2 factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public T newInstance(Object[] args) {
+      try {
+        return cast(factory.create(args[0], args[1]));
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+  }
+
+  private static class Instantiator3<T> extends Instantiator<T> {
+    private final Factory3 factory;
+
+    Instantiator3(Factory3 factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public T newInstance(Object[] args) {
+      try {
+        return cast(factory.create(args[0], args[1], args[2]));
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+  }
+
+  private static class Instantiator4<T> extends Instantiator<T> {
+    private final Factory4 factory;
+
+    Instantiator4(Factory4 factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public T newInstance(Object[] args) {
+      try {
+        return cast(factory.create(args[0], args[1], args[2], args[3]));
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+  }
+
+  private static class HandleInstantiator<T> extends Instantiator<T> {
+    private final MethodHandle handle;
+
+    HandleInstantiator(MethodHandle constructor) {
+      var arity = constructor.type().parameterCount();
+      handle = constructor.asType(MethodType.genericMethodType(arity)).asSpreader(Object[].class, arity);
+    }
+
+    @Override
+    public T newInstance(Object[] args) {
+      try {
+        return cast((Object) handle.invokeExact(args));
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+  }
+
+  private static class ReflectiveInstantiator<T> extends Instantiator<T> {
+    private final Constructor<T> constructor;
+
+    ReflectiveInstantiator(Constructor<T> constructor) {
+      this.constructor = constructor;
+    }
+
+    @Override
+    public T newInstance(Object[] args) {
+      try {
+        return constructor.newInstance(args);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e.getCause());
+      } catch (InstantiationException | IllegalAccessException e) {
+        throw new ReflectionsException(e);
+      }
+    }
+  }
+}
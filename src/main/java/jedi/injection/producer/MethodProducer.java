@@ -1,49 +1,143 @@
 package jedi.injection.producer;
 
 import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.DefinitionException;
 import jakarta.enterprise.inject.spi.InjectionPoint;
 import jakarta.enterprise.inject.spi.Producer;
+import jedi.bean.BeanInstance;
+import jedi.context.CreationalContextImpl;
 import org.reflections.ReflectionsException;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import static jedi.ReflectionsHelper.cast;
+import static jedi.ReflectionsHelper.getQualifiers;
+import static jedi.context.CreationalContextImpl.createDependent;
 
-public class MethodProducer<T> implements Producer<T> {
-  private final Method      producerMethod;
-  private final Instance<?> producerDeclaringClassInstance;
-  private final Set<InjectionPoint> injectionPoints;
+public class MethodProducer<T> implements Producer<T>, Disposable {
+  private final    Method                              producerMethod;
+  private final    Instance<?>                         producerDeclaringClassInstance;
+  private final    Set<InjectionPoint>                 injectionPoints;
+  private final    Dependencies                        dependencies;
+  private final    Method                              disposerMethod;
+  private final    Function<Parameter, InjectionPoint> disposerInjectionPoints;
+  private volatile Bean<?>[]                           disposerBeans;
 
   public MethodProducer(Method m, Instance<?> instance, Set<InjectionPoint> injectionPoints) {
+    this(m, instance, injectionPoints, null, null);
+  }
+
+  /**
+   * @param executor                where to create the independent arguments of the method concurrently, null to
+   *                                create them one after another
+   * @param disposerInjectionPoints resolves the parameters of the disposer method other than the disposed instance,
+   *                                in the container of the producer, the first time it is called
+   */
+  public MethodProducer(Method m, Instance<?> instance, Set<InjectionPoint> injectionPoints, Executor executor,
+      Function<Parameter, InjectionPoint> disposerInjectionPoints) {
     producerMethod = m;
     producerDeclaringClassInstance = instance;
     this.injectionPoints = injectionPoints;
+    this.dependencies = new Dependencies(injectionPoints, executor);
+    this.disposerMethod = findDisposer(m);
+    this.disposerInjectionPoints = disposerInjectionPoints;
+  }
+
+  // The method of the producer's class with a @Disposes parameter of the produced type and qualifiers.
+  private static Method findDisposer(Method producer) {
+    var qualifiers = getQualifiers(producer);
+    for (var m : producer.getDeclaringClass().getDeclaredMethods()) {
+      for (var p : m.getParameters()) {
+        if (p.isAnnotationPresent(Disposes.class) && p.getType().isAssignableFrom(producer.getReturnType())
+            && getQualifiers(p).equals(qualifiers)) {
+          m.trySetAccessible();
+          return m;
+        }
+      }
+    }
+    return null;
   }
 
+  public Method getMethod() {
+    return producerMethod;
+  }
+
+  /**
+   * Calls the producer method. A {@code @Dependent} instance of its class is destroyed once it returns.
+   */
   @Override
   public T produce(CreationalContext creationalContext) {
-    var producerClassInstance = producerDeclaringClassInstance.get();
+    var declaringContext = new CreationalContextImpl<>();
     try {
-      return cast(producerMethod.invoke(producerClassInstance, getMethodArgs()));
+      var producerClassInstance = getDeclaringInstance(declaringContext);
+      return cast(producerMethod.invoke(producerClassInstance, dependencies.create(creationalContext)));
     } catch (IllegalAccessException | InvocationTargetException e) {
       throw new ReflectionsException(e);
+    } finally {
+      declaringContext.release();
     }
   }
 
-  private Object[] getMethodArgs() {
-    return injectionPoints.stream().map(this::resolveArgs).toArray();
-  }
-
-  private Object resolveArgs(InjectionPoint injectionPoint) {
-    return injectionPoint.getBean().create(null);
+  @Override
+  public boolean hasDisposal() {
+    return disposerMethod != null;
   }
 
+  /**
+   * Calls the disposer method, its parameters other than the disposed instance being injected like the parameters of
+   * the producer method. The {@code @Dependent} ones, and a {@code @Dependent} instance of its class, are destroyed
+   * once it returns.
+   */
   @Override
   public void dispose(Object o) {
-    throw new UnsupportedOperationException("Not yet implemented.");
+    if (disposerMethod == null)
+      return;
+    var beans = getDisposerBeans();
+    var creationalContext = new CreationalContextImpl<>();
+    try {
+      var args = new Object[beans.length];
+      for (int i = 0; i < beans.length; i++)
+        args[i] = beans[i] == null ? o : createDependent(beans[i], creationalContext);
+      disposerMethod.invoke(getDeclaringInstance(creationalContext), args);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new ReflectionsException(e);
+    } finally {
+      creationalContext.release();
+    }
+  }
+
+  // An instance of the class declaring the methods, recorded in the given context when it has to be destroyed.
+  private Object getDeclaringInstance(CreationalContextImpl<?> creationalContext) {
+    if (producerDeclaringClassInstance instanceof BeanInstance)
+      return createDependent(((BeanInstance<?>) producerDeclaringClassInstance).findBean(), creationalContext);
+    return producerDeclaringClassInstance.get();
+  }
+
+  // The beans of the disposer parameters, null for the disposed instance.
+  private Bean<?>[] getDisposerBeans() {
+    var beans = disposerBeans;
+    if (beans == null) {
+      var parameters = disposerMethod.getParameters();
+      beans = new Bean<?>[parameters.length];
+      for (int i = 0; i < parameters.length; i++) {
+        if (parameters[i].isAnnotationPresent(Disposes.class))
+          continue;
+        if (disposerInjectionPoints == null)
+          throw new DefinitionException("No container to inject the parameter " + parameters[i] + " of the disposer "
+              + disposerMethod);
+        beans[i] = disposerInjectionPoints.apply(parameters[i]).getBean();
+      }
+      disposerBeans = beans;
+    }
+    return beans;
   }
 
   @Override
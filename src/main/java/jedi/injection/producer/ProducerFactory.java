@@ -1,36 +1,76 @@
 package jedi.injection.producer;
 
 import jakarta.enterprise.inject.Instance;
-import jakarta.enterprise.inject.Produces;
 import jakarta.enterprise.inject.spi.Bean;
 import jakarta.enterprise.inject.spi.CDI;
+import jakarta.enterprise.inject.spi.DefinitionException;
 import jakarta.enterprise.inject.spi.InjectionPoint;
 import jakarta.enterprise.inject.spi.Producer;
+import jakarta.inject.Provider;
 import jedi.JeDI;
 import jedi.bean.BeanInstance;
+import jedi.bean.InstanceBean;
+import jedi.index.BeanIndex;
 import jedi.injection.ParameterInjectionPoint;
-import org.reflections.Reflections;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static jedi.ReflectionsHelper.*;
-import static jedi.injection.producer.ProducerHelperPredicates.*;
-import static org.reflections.scanners.Scanners.MethodsAnnotated;
-import static org.reflections.util.ReflectionUtilsPredicates.withReturnType;
+import static jedi.injection.producer.ProducerHelperPredicates.getBeanName;
+import static jedi.injection.producer.ProducerHelperPredicates.withBeanName;
 
 public class ProducerFactory {
-  private final Reflections metadata;
-  private final JeDI        jedi;
+  /**
+   * Creates the independent arguments of constructors and producer methods concurrently: {@code virtual} on virtual
+   * threads when the runtime has them, any other value but {@code false} on the common fork join pool.
+   */
+  public static final String PARALLEL_PROPERTY = "jedi.parallel";
+
+  private final    BeanIndex        metadata;
+  private final    ProducerRegistry producers;
+  private final    JeDI             jedi;
+  private final    boolean          compiled;
+  private volatile Executor         executor;
 
   public ProducerFactory() {
     this.jedi = (JeDI) CDI.current();
     this.metadata = jedi.getMetadata();
+    this.producers = new ProducerRegistry(metadata.getProducerMethods());
+    this.compiled = Boolean.getBoolean(GraphCompiler.ENABLED_PROPERTY);
+    this.executor = getDefaultExecutor(System.getProperty(PARALLEL_PROPERTY));
+  }
+
+  private static Executor getDefaultExecutor(String parallel) {
+    if (parallel == null || parallel.equalsIgnoreCase("false"))
+      return null;
+    if (parallel.equalsIgnoreCase("virtual")) {
+      try {
+        return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+        // virtual threads are missing or still a preview feature of this runtime
+      }
+    }
+    return ForkJoinPool.commonPool();
+  }
+
+  /**
+   * The executor creating the independent arguments of the producers created from now on, null to create them one
+   * after another.
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
   }
 
   public <U> Producer<U> createProducer(Class<U> subtype, Annotation... annotations) {
@@ -38,7 +78,7 @@ public class ProducerFactory {
   }
 
   public <U> Producer<U> createProducer(Class<U> subtype, String beanName, Annotation... annotations) {
-    Set<Method> methods = findMethodsProducer(subtype, getQualifiers(annotations));
+    Set<Method> methods = producers.find(subtype, getQualifiers(annotations));
     if (methods.size() == 0)
       return getConstructorProducer(subtype);
     if (methods.size() > 1)
@@ -49,22 +89,36 @@ public class ProducerFactory {
         .orElse(null));
   }
 
-  private <U> Set<Method> findMethodsProducer(Class<U> subtype, Set<Annotation> qualifiers) {
-    return metadata.get(MethodsAnnotated.with(Produces.class)
-        .as(Method.class)
-        .filter(withReturnType(subtype))
-        .filter(withQualifiers(qualifiers)));
+  /**
+   * The producers of every producer method returning exactly the given parameterized type with the given qualifiers.
+   */
+  public List<Producer<?>> createProducers(ParameterizedType type, Annotation... annotations) {
+    return producers.find(type, getQualifiers(annotations)).stream()
+        .map(this::getMethodProducer)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * The producer calling the injectable constructor of the given class, ignoring its producer methods, or null for an
+   * abstract type.
+   */
+  public <U> Producer<U> createConstructorProducer(Class<U> subtype) {
+    return getConstructorProducer(subtype);
   }
 
   private <U> Producer<U> getConstructorProducer(Class<U> subtype) {
     if (isAbstraction(subtype))
       return null;
-    var constructor = getInjectableConstructor(subtype);
-    return new ConstructorProducer<>(constructor, getInjectionPoints(constructor.getParameters()));
+    var constructor = metadata.getInjectableConstructor(subtype);
+    var executor = this.executor;
+    var producer = new ConstructorProducer<>(constructor, getInjectionPoints(constructor.getParameters()), executor);
+    // a compiled graph creates everything on the calling thread
+    return compiled && executor == null ? new CompiledProducer<>(producer) : producer;
   }
 
   private <U> Producer<U> getMethodProducer(Method m) {
-    return new MethodProducer<>(m, jedi.select(m.getDeclaringClass()), getInjectionPoints(m.getParameters()));
+    return new MethodProducer<>(m, jedi.select(m.getDeclaringClass()), getInjectionPoints(m.getParameters()),
+        executor, this::resolveInjectionPoints);
   }
 
   private Set<InjectionPoint> getInjectionPoints(Parameter[] parameters) {
@@ -77,8 +131,27 @@ public class ProducerFactory {
 
   private InjectionPoint resolveInjectionPoints(Parameter p) {
     var qualifiers = getQualifiers(p);
-    Instance<?> instance = jedi.select(p.getType(), qualifiers.toArray(new Annotation[] {}));
+    var annotations = qualifiers.toArray(new Annotation[] {});
+    if (p.getType() == Instance.class || p.getType() == Provider.class) {
+      var type = getInstanceType(p);
+      return new ParameterInjectionPoint(qualifiers, new InstanceBean<>(() -> jedi.selectType(type, annotations)));
+    }
+    Instance<?> instance = p.getParameterizedType() instanceof ParameterizedType
+        ? jedi.selectType(p.getParameterizedType(), annotations)
+        : jedi.select(p.getType(), annotations);
     Bean<?> bean = ((BeanInstance<?>) instance).findBean();
     return new ParameterInjectionPoint(qualifiers, bean);
   }
+
+  // Instance<T> and Provider<T> are resolved when they are first used, only their type argument is needed here
+  private static Type getInstanceType(Parameter p) {
+    var type = p.getParameterizedType();
+    if (type instanceof ParameterizedType) {
+      var argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+      if (argument instanceof Class || argument instanceof ParameterizedType)
+        return argument;
+    }
+    throw new DefinitionException("The injection point " + p + " of " + p.getDeclaringExecutable()
+        + " must declare the type of its instances");
+  }
 }
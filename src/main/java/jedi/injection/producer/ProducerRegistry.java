@@ -0,0 +1,60 @@
+package jedi.injection.producer;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static jedi.ReflectionsHelper.getQualifiers;
+
+/**
+ * The producer methods of the container, indexed by their raw and generic return types.
+ */
+public class ProducerRegistry {
+  private final Map<Type, List<ProducerMethod>> producers;
+
+  public ProducerRegistry(Collection<Method> methods) {
+    var index = new HashMap<Type, List<ProducerMethod>>();
+    for (var method : methods) {
+      var producer = new ProducerMethod(method, getQualifiers(method));
+      index.computeIfAbsent(method.getReturnType(), k -> new ArrayList<>()).add(producer);
+      if (!method.getGenericReturnType().equals(method.getReturnType()))
+        index.computeIfAbsent(method.getGenericReturnType(), k -> new ArrayList<>()).add(producer);
+    }
+    index.replaceAll((type, list) -> List.copyOf(list));
+    producers = Map.copyOf(index);
+  }
+
+  public List<ProducerMethod> find(Type type) {
+    return producers.getOrDefault(type, List.of());
+  }
+
+  public Set<Method> find(Type type, Set<Annotation> qualifiers) {
+    var candidates = find(type);
+    if (candidates.isEmpty())
+      return Set.of();
+    return candidates.stream()
+        .filter(p -> p.qualifiers.containsAll(qualifiers))
+        .map(p -> p.method)
+        .collect(Collectors.toSet());
+  }
+
+  public static class ProducerMethod {
+    private final Method          method;
+    private final Set<Annotation> qualifiers;
+
+    ProducerMethod(Method method, Set<Annotation> qualifiers) {
+      this.method = method;
+      this.qualifiers = qualifiers;
+    }
+
+    public Method getMethod() {
+      return method;
+    }
+
+    public Set<Annotation> getQualifiers() {
+      return qualifiers;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package jedi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Creating an instance of a bean, including the creation of the dependencies it is the first to need. The depth is
+ * the number of instances being created on the same thread that this one is a dependency of.
+ * <p>
+ * A graph built by a compiled factory is a single creation of its root bean.
+ */
+@Name("jedi.Creation")
+@Label("Bean Creation")
+@Category("JeDI")
+@Description("Creation of an instance of a bean and of its dependencies")
+@StackTrace(false)
+public class CreationEvent extends Event {
+  // only used while the event is enabled
+  private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+  @Label("Bean Class")
+  private Class<?> beanClass;
+
+  @Label("Scope")
+  private Class<?> scope;
+
+  @Label("Depth")
+  private int depth;
+
+  /**
+   * Starts timing a creation, returning its depth.
+   */
+  public int enter() {
+    begin();
+    return DEPTH.get()[0]++;
+  }
+
+  public void commit(Class<?> beanClass, Class<? extends Annotation> scope, int depth) {
+    DEPTH.get()[0]--;
+    end();
+    if (!shouldCommit())
+      return;
+    this.beanClass = beanClass;
+    this.scope = scope;
+    this.depth = depth;
+    commit();
+  }
+}
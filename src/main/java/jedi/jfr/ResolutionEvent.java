@@ -0,0 +1,41 @@
+package jedi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Selecting the beans of a type and qualifiers, which is a cache lookup once they have been resolved.
+ */
+@Name("jedi.Resolution")
+@Label("Bean Resolution")
+@Category("JeDI")
+@Description("Selection of the beans of a type, resolved or found in the cache")
+@StackTrace(false)
+public class ResolutionEvent extends Event {
+  @Label("Type")
+  private String type;
+
+  @Label("Qualifiers")
+  private String qualifiers;
+
+  @Label("Cache Hit")
+  private boolean cacheHit;
+
+  public void commit(Type type, Set<Annotation> qualifiers, boolean cacheHit) {
+    end();
+    if (!shouldCommit())
+      return;
+    this.type = type.getTypeName();
+    this.qualifiers = qualifiers.toString();
+    this.cacheHit = cacheHit;
+    commit();
+  }
+}
@@ -0,0 +1,38 @@
+package jedi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading the bean index of a container: reading the compiled index, or scanning the classpath.
+ */
+@Name("jedi.Scan")
+@Label("Bean Index Loading")
+@Category("JeDI")
+@Description("Loading of the bean index when a container is created")
+@StackTrace(false)
+public class ScanEvent extends Event {
+  public static final String COMPILED = "compiled index";
+  public static final String CACHED   = "scan cache";
+  public static final String SCANNED  = "classpath scan";
+
+  @Label("Prefix")
+  private String prefix;
+
+  @Label("Source")
+  @Description("Where the index comes from: " + COMPILED + ", " + CACHED + " or " + SCANNED)
+  private String source;
+
+  public void commit(String prefix, String source) {
+    end();
+    if (!shouldCommit())
+      return;
+    this.prefix = prefix;
+    this.source = source;
+    commit();
+  }
+}
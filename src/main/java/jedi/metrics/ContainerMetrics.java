@@ -0,0 +1,56 @@
+package jedi.metrics;
+
+import java.lang.annotation.Annotation;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of a container, updated as beans are selected, resolved and created.
+ * <p>
+ * Every counter is a {@link LongAdder}, so that the threads selecting beans concurrently don't contend on them. The
+ * creation counter of a bean class is looked up once, when the bean is resolved, not on each creation.
+ */
+public final class ContainerMetrics {
+  private final LongAdder                hits       = new LongAdder();
+  private final LongAdder                misses     = new LongAdder();
+  private final LatencyHistogram         resolution = new LatencyHistogram();
+  private final Map<Class<?>, LongAdder> created    = new ConcurrentHashMap<>();
+  private volatile long                  scanNanos;
+
+  public void recordHit() {
+    hits.increment();
+  }
+
+  /**
+   * Records a selection that missed the cache, and how long resolving it took.
+   */
+  public void recordMiss(long resolutionNanos) {
+    misses.increment();
+    resolution.record(resolutionNanos);
+  }
+
+  public void recordScan(long nanos) {
+    scanNanos = nanos;
+  }
+
+  /**
+   * The counter of the instances created of the given bean class.
+   */
+  public LongAdder getCreationCounter(Class<?> beanClass) {
+    var counter = created.get(beanClass);
+    return counter != null ? counter : created.computeIfAbsent(beanClass, c -> new LongAdder());
+  }
+
+  /**
+   * @param liveInstances the number of instances currently held by the context of each scope
+   */
+  public MetricsSnapshot snapshot(Map<Class<? extends Annotation>, Integer> liveInstances) {
+    var instances = new HashMap<Class<?>, Long>();
+    created.forEach((type, counter) -> instances.put(type, counter.sum()));
+    return new MetricsSnapshot(hits.sum(), misses.sum(), resolution.snapshot(), Map.copyOf(instances),
+        Map.copyOf(liveInstances), Duration.ofNanos(scanNanos));
+  }
+}
@@ -0,0 +1,55 @@
+package jedi.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts durations in log-linear buckets: eight buckets per power of two nanoseconds, so a percentile is known within
+ * 12.5%. Each bucket is a {@link LongAdder}, recording never contends and never allocates once the bucket's cells
+ * are there.
+ */
+public final class LatencyHistogram {
+  static final int SUB_BUCKET_BITS = 3;
+  static final int SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+  static final int BUCKETS         = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final LongAdder[]     buckets = new LongAdder[BUCKETS];
+  private final LongAccumulator max     = new LongAccumulator(Math::max, 0);
+
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++)
+      buckets[i] = new LongAdder();
+  }
+
+  public void record(long nanos) {
+    if (nanos < 0)
+      nanos = 0;
+    buckets[index(nanos)].increment();
+    max.accumulate(nanos);
+  }
+
+  public LatencySnapshot snapshot() {
+    var counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++)
+      counts[i] = buckets[i].sum();
+    return new LatencySnapshot(counts, max.get());
+  }
+
+  // values below SUB_BUCKETS have a bucket each, the others share one with the values of same leading bits
+  static int index(long nanos) {
+    if (nanos < SUB_BUCKETS)
+      return (int) nanos;
+    var exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    var shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) (nanos >>> shift & SUB_BUCKETS - 1);
+  }
+
+  // the highest value of the bucket
+  static long upperBound(int index) {
+    if (index < SUB_BUCKETS)
+      return index;
+    var shift = index / SUB_BUCKETS - 1;
+    var lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
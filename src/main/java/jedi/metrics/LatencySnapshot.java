@@ -0,0 +1,58 @@
+package jedi.metrics;
+
+import java.time.Duration;
+
+/**
+ * The durations counted by a {@link LatencyHistogram} at some point.
+ */
+public final class LatencySnapshot {
+  private final long[] counts;
+  private final long   count;
+  private final long   maxNanos;
+
+  LatencySnapshot(long[] counts, long maxNanos) {
+    this.counts = counts;
+    this.maxNanos = maxNanos;
+    var total = 0L;
+    for (var c : counts)
+      total += c;
+    this.count = total;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * The duration the given share of the recorded durations don't exceed, {@code 0.99} for the 99th percentile,
+   * rounded up to its bucket. Zero before the first recording.
+   */
+  public Duration getPercentile(double quantile) {
+    if (quantile < 0 || quantile > 1)
+      throw new IllegalArgumentException("The quantile " + quantile + " is not between 0 and 1");
+    if (count == 0)
+      return Duration.ZERO;
+    var rank = Math.max(1, (long) Math.ceil(quantile * count));
+    var seen = 0L;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank)
+        return Duration.ofNanos(Math.min(LatencyHistogram.upperBound(i), maxNanos));
+    }
+    return getMax();
+  }
+
+  public Duration getMedian() {
+    return getPercentile(0.5);
+  }
+
+  public Duration getMax() {
+    return Duration.ofNanos(maxNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "LatencySnapshot[count=" + count + ", p50=" + getMedian() + ", p90=" + getPercentile(0.9) + ", p99="
+        + getPercentile(0.99) + ", max=" + getMax() + "]";
+  }
+}
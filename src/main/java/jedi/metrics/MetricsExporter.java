@@ -0,0 +1,10 @@
+package jedi.metrics;
+
+/**
+ * Bridges the metrics of a container to a monitoring system, called with a fresh snapshot each time the container
+ * exports them.
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+  void export(MetricsSnapshot snapshot);
+}
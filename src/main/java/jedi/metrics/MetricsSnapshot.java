@@ -0,0 +1,89 @@
+package jedi.metrics;
+
+import java.lang.annotation.Annotation;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A snapshot of the activity of a container.
+ */
+public final class MetricsSnapshot {
+  private final long                                      hits;
+  private final long                                      misses;
+  private final LatencySnapshot                           resolutionLatency;
+  private final Map<Class<?>, Long>                       createdInstances;
+  private final Map<Class<? extends Annotation>, Integer> liveInstances;
+  private final Duration                                  scanTime;
+
+  MetricsSnapshot(long hits, long misses, LatencySnapshot resolutionLatency, Map<Class<?>, Long> createdInstances,
+      Map<Class<? extends Annotation>, Integer> liveInstances, Duration scanTime) {
+    this.hits = hits;
+    this.misses = misses;
+    this.resolutionLatency = resolutionLatency;
+    this.createdInstances = createdInstances;
+    this.liveInstances = liveInstances;
+    this.scanTime = scanTime;
+  }
+
+  /**
+   * The selections answered from the resolution cache.
+   */
+  public long getSelectHits() {
+    return hits;
+  }
+
+  /**
+   * The selections that had to be resolved.
+   */
+  public long getSelectMisses() {
+    return misses;
+  }
+
+  /**
+   * The share of the selections answered from the cache, 0 before the first one.
+   */
+  public double getSelectHitRate() {
+    var selections = hits + misses;
+    return selections == 0 ? 0 : (double) hits / selections;
+  }
+
+  /**
+   * How long the selections that missed the cache took to be resolved.
+   */
+  public LatencySnapshot getResolutionLatency() {
+    return resolutionLatency;
+  }
+
+  /**
+   * The instances created of each bean class, whatever their scope.
+   */
+  public Map<Class<?>, Long> getCreatedInstances() {
+    return createdInstances;
+  }
+
+  public long getCreatedInstances(Class<?> beanClass) {
+    return createdInstances.getOrDefault(beanClass, 0L);
+  }
+
+  /**
+   * The instances currently held by the context of each scope, not counting the request scope, whose instances
+   * belong to their thread.
+   */
+  public Map<Class<? extends Annotation>, Integer> getLiveInstances() {
+    return liveInstances;
+  }
+
+  /**
+   * How long loading the bean index took, zero when the container was given its index.
+   */
+  public Duration getScanTime() {
+    return scanTime;
+  }
+
+  @Override
+  public String toString() {
+    return "MetricsSnapshot[selectHits=" + hits + ", selectMisses=" + misses + ", resolutionLatency="
+        + resolutionLatency + ", createdInstances=" + createdInstances + ", liveInstances=" + liveInstances
+        + ", scanTime=" + scanTime + "]";
+  }
+}
@@ -0,0 +1,55 @@
+package jedi;
+
+import jakarta.enterprise.inject.Alternative;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Default;
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QualifiedTypesTest {
+  private final QualifiedTypes keys = new QualifiedTypes();
+
+  @Test
+  void theSameTypeAndQualifiersGiveTheSameKey() throws NoSuchMethodException {
+    var named = getClass().getDeclaredMethod("named").getAnnotation(Named.class);
+    var key = keys.get(String.class, named);
+    assertSame(key, keys.get(String.class, NamedLiteral.of("a")));
+    assertSame(keys.get(String.class), keys.get(String.class));
+    assertEquals(Set.of(named, Any.Literal.INSTANCE, Default.Literal.INSTANCE), key.getQualifiers());
+  }
+  @Named("a")
+  void named() {}
+
+  @Test
+  void impliedAndNonQualifierAnnotationsAreIgnored() {
+    var key = keys.get(String.class);
+    assertSame(key, keys.get(String.class, Any.Literal.INSTANCE, Default.Literal.INSTANCE));
+    assertSame(key, keys.get(String.class, Alternative.Literal.INSTANCE));
+  }
+
+  @Test
+  void differentTypesOrQualifiersGiveDifferentKeys() {
+    var key = keys.get(String.class, NamedLiteral.of("a"));
+    assertNotSame(key, keys.get(String.class, NamedLiteral.of("b")));
+    assertNotSame(key, keys.get(String.class));
+    assertNotSame(key, keys.get(Integer.class, NamedLiteral.of("a")));
+    assertNotEquals(key, keys.get(Integer.class, NamedLiteral.of("a")));
+  }
+
+  @Test
+  void moreThan64Qualifiers() {
+    var seen = new HashSet<QualifiedType<?>>();
+    for (int i = 0; i < 200; i++)
+      assertTrue(seen.add(keys.get(String.class, NamedLiteral.of("q" + i))));
+    var key = keys.get(String.class, NamedLiteral.of("q150"), NamedLiteral.of("q3"));
+    assertSame(key, keys.get(String.class, NamedLiteral.of("q3"), NamedLiteral.of("q150")));
+    assertTrue(key.getQualifiers().containsAll(Set.<Annotation>of(NamedLiteral.of("q3"), NamedLiteral.of("q150"))));
+  }
+}
@@ -3,12 +3,14 @@ package jedi;
 import jakarta.enterprise.inject.Alternative;
 import jakarta.enterprise.inject.Any;
 import jakarta.enterprise.inject.Default;
+import jakarta.enterprise.util.TypeLiteral;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static jedi.ReflectionsHelper.getInjectableConstructor;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 class ReflectionsHelperTest {
 
@@ -30,6 +32,15 @@ class ReflectionsHelperTest {
     assertEquals(2, qualifiers.size());
   }
 
+  @Test
+  void classMetadataIsComputedOnce() {
+    @Alternative
+    class A {}
+    assertSame(ReflectionsHelper.getQualifiers(A.class), ReflectionsHelper.getQualifiers(A.class));
+    assertSame(getInjectableConstructor(A.class), getInjectableConstructor(A.class));
+    assertThrows(UnsupportedOperationException.class, () -> ReflectionsHelper.getQualifiers(A.class).clear());
+  }
+
   @Nested
   class GetInjectableConstructor {
 
@@ -49,4 +60,28 @@ class ReflectionsHelperTest {
       assertNotNull(constructor);
     }
   }
-}
\ No newline at end of file
+
+  @Nested
+  class GetTypeClosure {
+
+    class Box<T> {}
+    class Crate<T> extends Box<List<T>> implements Comparable<Crate<T>> {
+      @Override
+      public int compareTo(Crate<T> o) {
+        return 0;
+      }
+    }
+    class StringCrate extends Crate<String> {}
+    @Test
+    void typeArgumentsAreResolvedThroughTheHierarchy() {
+      var types = ReflectionsHelper.getTypeClosure(StringCrate.class);
+      assertTrue(types.contains(StringCrate.class));
+      assertTrue(types.contains(new TypeLiteral<Crate<String>>() {}.getType()));
+      assertTrue(types.contains(new TypeLiteral<Box<List<String>>>() {}.getType()));
+      assertTrue(types.contains(new TypeLiteral<Comparable<Crate<String>>>() {}.getType()));
+      assertTrue(types.contains(Object.class));
+      assertFalse(types.contains(Crate.class));
+      assertSame(types, ReflectionsHelper.getTypeClosure(StringCrate.class));
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package jedi.bean;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Singleton;
+import jedi.JeDI;
+import jedi.context.Pooled;
+import jedi.context.PooledContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeanInstanceIterationTest {
+  private static final List<String> CREATED   = new ArrayList<>();
+  private static final List<String> DESTROYED = new ArrayList<>();
+
+  private JeDI jedi;
+
+  public interface Handler {
+  }
+
+  public static class JsonHandler implements Handler {
+    public JsonHandler() {
+      created("json");
+    }
+  }
+
+  public static class XmlHandler implements Handler {
+    public XmlHandler() {
+      created("xml");
+    }
+  }
+
+  public static class CsvHandler implements Handler {
+    public CsvHandler() {
+      created("csv");
+    }
+
+    @PreDestroy
+    void destroy() {
+      DESTROYED.add("csv");
+    }
+  }
+
+  public interface Channel {
+  }
+
+  @Pooled(maxSize = 1)
+  public static class TcpChannel implements Channel {
+  }
+
+  @Pooled(maxSize = 1)
+  public static class UdpChannel implements Channel {
+  }
+
+  @Singleton
+  public static class Registry {
+    @PreDestroy
+    void destroy() {
+      DESTROYED.add("registry");
+    }
+  }
+
+  public interface Unused {
+  }
+
+  private static synchronized void created(String name) {
+    CREATED.add(name);
+  }
+
+  @BeforeEach
+  void setUp() {
+    CREATED.clear();
+    DESTROYED.clear();
+    jedi = new JeDI(BeanInstanceIterationTest.class.getPackageName());
+  }
+
+  @Test
+  void instancesAreCreatedOneAtATimeWhileIterating() {
+    var iterator = jedi.select(Handler.class).iterator();
+    assertTrue(CREATED.isEmpty());
+
+    var first = iterator.next();
+    assertNotNull(first);
+    assertEquals(1, CREATED.size());
+    iterator.next();
+    iterator.next();
+    assertFalse(iterator.hasNext());
+    assertThrows(NoSuchElementException.class, iterator::next);
+    assertEquals(Set.of("json", "xml", "csv"), Set.copyOf(CREATED));
+  }
+
+  @Test
+  void handlesCreateTheirInstanceWhenAskedFor() {
+    var handles = new ArrayList<Instance.Handle<Handler>>();
+    jedi.select(Handler.class).handles().forEach(handles::add);
+    assertEquals(3, handles.size());
+    assertTrue(CREATED.isEmpty());
+
+    var handle = handles.get(0);
+    assertTrue(handle.getBean().getBeanClass().isInstance(handle.get()));
+    assertEquals(1, CREATED.size());
+    assertEquals(3, jedi.select(Handler.class).handlesStream().count());
+  }
+
+  @Test
+  void streamsAreSizedAndCreateLazily() {
+    var stream = jedi.select(Handler.class).stream();
+    assertEquals(3, stream.spliterator().getExactSizeIfKnown());
+    assertTrue(CREATED.isEmpty());
+
+    var first = jedi.select(Handler.class).stream().findFirst();
+    assertTrue(first.isPresent());
+    assertEquals(1, CREATED.size());
+  }
+
+  @Test
+  void parallelStreamsCreateEveryInstance() {
+    var threads = ConcurrentHashMap.newKeySet();
+    var types = jedi.select(Handler.class).stream().parallel()
+        .peek(h -> threads.add(Thread.currentThread()))
+        .map(Object::getClass)
+        .collect(Collectors.toSet());
+    assertEquals(Set.of(JsonHandler.class, XmlHandler.class, CsvHandler.class), types);
+    assertFalse(threads.isEmpty());
+  }
+
+  @Test
+  void iteratedInstancesAreDestroyedThroughTheirInstance() {
+    var instance = jedi.select(Handler.class);
+    for (var handler : instance)
+      instance.destroy(handler);
+    assertEquals(List.of("csv"), DESTROYED);
+  }
+
+  @Test
+  void iteratedPooledInstancesAreGivenBackToTheirPool() {
+    var instance = jedi.select(Channel.class);
+    for (var channel : instance)
+      instance.destroy(channel);
+    var context = (PooledContext) jedi.getContext(Pooled.class);
+    assertEquals(0, context.getMetrics(TcpChannel.class).getInUse());
+    assertEquals(1, context.getMetrics(TcpChannel.class).getIdle());
+    assertEquals(0, context.getMetrics(UdpChannel.class).getInUse());
+  }
+
+  @Test
+  void closingTheHandlesOfSeveralBeansDestroysTheirInstances() {
+    for (var handle : jedi.select(Handler.class).handles()) {
+      handle.get();
+      handle.close();
+    }
+    assertEquals(List.of("csv"), DESTROYED);
+  }
+
+  @Test
+  void destroyingAHandleNeverGottenLeavesTheSingletonAlone() {
+    var registry = jedi.select(Registry.class).get();
+    jedi.select(Registry.class).getHandle().destroy();
+    assertSame(registry, jedi.select(Registry.class).get());
+    assertEquals(List.of(), DESTROYED);
+  }
+
+  @Test
+  void unsatisfiedInstancesIterateOverNothing() {
+    assertFalse(jedi.select(Unused.class).iterator().hasNext());
+    assertEquals(0, jedi.select(Unused.class).stream().count());
+  }
+}
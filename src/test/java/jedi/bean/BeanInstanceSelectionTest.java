@@ -0,0 +1,112 @@
+package jedi.bean;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.UnsatisfiedResolutionException;
+import jakarta.enterprise.inject.Vetoed;
+import jakarta.enterprise.util.AnnotationLiteral;
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.inject.Qualifier;
+import jedi.JeDI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeanInstanceSelectionTest {
+  private JeDI              jedi;
+  private Instance<Storage> storages;
+
+  @Qualifier
+  @Retention(RUNTIME)
+  @Target({ TYPE, METHOD, PARAMETER })
+  public @interface Fast {
+    final class Literal extends AnnotationLiteral<Fast> implements Fast {
+      static final Literal INSTANCE = new Literal();
+    }
+  }
+
+  @Qualifier
+  @Retention(RUNTIME)
+  @Target({ TYPE, METHOD, PARAMETER })
+  public @interface Cheap {
+    final class Literal extends AnnotationLiteral<Cheap> implements Cheap {
+      static final Literal INSTANCE = new Literal();
+    }
+  }
+
+  public interface Storage {
+  }
+
+  @Fast
+  public static class MemoryStorage implements Storage {
+  }
+
+  @Cheap
+  public static class DiskStorage implements Storage {
+  }
+
+  @Fast
+  @Cheap
+  public static class FlashStorage implements Storage {
+  }
+
+  @BeforeEach
+  void setUp() {
+    jedi = new JeDI(BeanInstanceSelectionTest.class.getPackageName());
+    storages = jedi.select(Storage.class);
+  }
+
+  @Test
+  void selectionNarrowsTheBeansByQualifier() {
+    var fast = storages.select(Fast.Literal.INSTANCE);
+    assertTrue(fast.isAmbiguous());
+    assertEquals(2, fast.stream().count());
+
+    assertTrue(fast.select(Cheap.Literal.INSTANCE).get() instanceof FlashStorage);
+    assertTrue(storages.select(Fast.Literal.INSTANCE, Cheap.Literal.INSTANCE).get() instanceof FlashStorage);
+    assertTrue(storages.select(NamedLiteral.of("tape")).isUnsatisfied());
+  }
+
+  @Test
+  void selectionsAreCached() {
+    assertSame(storages.select(Fast.Literal.INSTANCE), storages.select(Fast.Literal.INSTANCE));
+    assertSame(storages.select(Fast.Literal.INSTANCE, Cheap.Literal.INSTANCE),
+        storages.select(Cheap.Literal.INSTANCE, Fast.Literal.INSTANCE));
+    assertSame(storages.select(DiskStorage.class), storages.select(DiskStorage.class));
+    assertSame(storages, storages.select());
+    assertSame(storages.select(Fast.Literal.INSTANCE), storages.select(Fast.Literal.INSTANCE, Fast.Literal.INSTANCE));
+    assertSame(storages.select(Fast.Literal.INSTANCE, Cheap.Literal.INSTANCE),
+        storages.select(Cheap.Literal.INSTANCE, Fast.Literal.INSTANCE, Cheap.Literal.INSTANCE));
+  }
+
+  @Test
+  void selectionNarrowsTheBeansBySubtype() {
+    assertTrue(storages.select(DiskStorage.class).get() instanceof DiskStorage);
+    assertTrue(storages.select(FlashStorage.class, Cheap.Literal.INSTANCE).get() instanceof FlashStorage);
+    assertTrue(storages.select(MemoryStorage.class, Cheap.Literal.INSTANCE).isUnsatisfied());
+  }
+
+  @Test
+  void onlyQualifiersCanBeSelected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> storages.select(new AnnotationLiteral<Vetoed>() {}));
+    var vetoed = new AnnotationLiteral<Vetoed>() {};
+    var e = assertThrows(IllegalArgumentException.class, () -> storages.select(vetoed, vetoed));
+    assertEquals(vetoed + " is not a qualifier", e.getMessage());
+  }
+
+  @Test
+  void containerSelectionAppliesItsQualifiersToTheSelectedType() {
+    var fastAndCheap = jedi.select(Fast.Literal.INSTANCE, Cheap.Literal.INSTANCE);
+    assertSame(fastAndCheap, jedi.select(Cheap.Literal.INSTANCE, Fast.Literal.INSTANCE));
+    assertTrue(fastAndCheap.select(Storage.class).get() instanceof FlashStorage);
+    assertTrue(jedi.select(Fast.Literal.INSTANCE).select(Cheap.Literal.INSTANCE).select(Storage.class).get()
+        instanceof FlashStorage);
+    assertThrows(UnsatisfiedResolutionException.class, fastAndCheap::get);
+  }
+}
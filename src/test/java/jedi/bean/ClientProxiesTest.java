@@ -0,0 +1,89 @@
+package jedi.bean;
+
+import jakarta.enterprise.inject.UnproxyableResolutionException;
+import jedi.context.RequestContext;
+import jedi.injection.producer.ConstructorProducer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static jedi.ReflectionsHelper.getInjectableConstructor;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientProxiesTest {
+  private final RequestContext context = new RequestContext();
+
+  public static class Counter {
+    private long count;
+
+    public long add(int a, long b, double c, float d, boolean e, char f) {
+      count += a + b + (long) c + (long) d + (e ? 1 : 0) + f;
+      return count;
+    }
+
+    double half() {
+      return count / 2.0;
+    }
+
+    public final Counter self() {
+      return this;
+    }
+
+    @Override
+    public String toString() {
+      return "count=" + count;
+    }
+  }
+
+  public static final class Greeter implements Supplier<String> {
+    @Override
+    public String get() {
+      return "hello " + System.identityHashCode(this);
+    }
+  }
+
+  public static final class Unproxyable {
+  }
+
+  @BeforeEach
+  void setUp() {
+    context.activate();
+  }
+
+  @AfterEach
+  void tearDown() {
+    context.deactivate();
+  }
+
+  @Test
+  void subclassProxiesForwardEveryOverridableMethod() {
+    var proxy = proxy(Counter.class);
+
+    assertNotEquals(Counter.class, proxy.getClass());
+    assertEquals(1 + 2 + 3 + 4 + 1 + 'a', proxy.add(1, 2, 3.5, 4.5f, true, 'a'));
+    assertEquals((1 + 2 + 3 + 4 + 1 + 'a') / 2.0, proxy.half());
+    assertEquals("count=" + (1 + 2 + 3 + 4 + 1 + 'a'), proxy.toString());
+    assertSame(proxy, proxy.self(), "final methods are not forwarded");
+  }
+
+  @Test
+  void finalClassesAreProxiedThroughTheirInterfaces() {
+    Supplier<String> proxy = proxy(Greeter.class);
+
+    assertFalse(proxy instanceof Greeter);
+    assertEquals(proxy.get(), proxy.get());
+  }
+
+  @Test
+  void classesWithoutInterfacesMustBeSubclassable() {
+    assertThrows(UnproxyableResolutionException.class, () -> proxy(Unproxyable.class));
+  }
+
+  private <T> T proxy(Class<T> type) {
+    var bean = new ManagedBean<>(type, new ConstructorProducer<>(getInjectableConstructor(type), Set.of()));
+    return ClientProxies.create(type, new ContextualReference<>(bean, context));
+  }
+}
@@ -0,0 +1,146 @@
+package jedi.bean;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.DefinitionException;
+import jakarta.inject.Provider;
+import jedi.JeDI;
+import jedi.injection.producer.GraphCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyInstanceTest {
+  private static final AtomicInteger CREATED   = new AtomicInteger();
+  private static final AtomicInteger DESTROYED = new AtomicInteger();
+
+  private JeDI jedi;
+
+  public static class Report {
+    public Report() {
+      CREATED.incrementAndGet();
+    }
+  }
+
+  public static class Reporter {
+    final Instance<Report> reports;
+
+    public Reporter(Instance<Report> reports) {
+      this.reports = reports;
+    }
+  }
+
+  public static class Printer {
+    final Provider<Report> report;
+
+    public Printer(Provider<Report> report) {
+      this.report = report;
+    }
+  }
+
+  public static class Page {
+    @PreDestroy
+    void destroy() {
+      DESTROYED.incrementAndGet();
+    }
+  }
+
+  public static class Book {
+    final Instance<Page> pages;
+
+    public Book(Instance<Page> pages) {
+      this.pages = pages;
+    }
+  }
+
+  public static class Chicken {
+    final Provider<Egg> egg;
+
+    public Chicken(Provider<Egg> egg) {
+      this.egg = egg;
+    }
+  }
+
+  public static class Egg {
+    final Chicken chicken;
+
+    public Egg(Chicken chicken) {
+      this.chicken = chicken;
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  public static class Raw {
+    public Raw(Provider provider) {
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    CREATED.set(0);
+    DESTROYED.set(0);
+    jedi = new JeDI(LazyInstanceTest.class.getPackageName());
+  }
+
+  @AfterEach
+  void tearDown() {
+    System.clearProperty(GraphCompiler.ENABLED_PROPERTY);
+  }
+
+  @Test
+  void instancesAreCreatedOnlyWhenAskedFor() {
+    var reporter = jedi.select(Reporter.class).get();
+    assertEquals(0, CREATED.get());
+
+    assertNotSame(reporter.reports.get(), reporter.reports.get());
+    assertEquals(2, CREATED.get());
+    assertNotSame(reporter.reports, jedi.select(Reporter.class).get().reports, "each bean has its own");
+  }
+
+  @Test
+  void theInstancesHandedOutAreDestroyedWithTheBeanTheyWereInjectedInto() {
+    var book = jedi.select(Book.class).get();
+    book.pages.get();
+    book.pages.destroy(book.pages.get());
+    book.pages.get();
+    assertEquals(1, DESTROYED.get());
+
+    jedi.destroy(book);
+    assertEquals(3, DESTROYED.get());
+  }
+
+  @Test
+  void providersAreCreatedOnlyWhenAskedFor() {
+    var printer = jedi.select(Printer.class).get();
+    assertEquals(0, CREATED.get());
+    assertNotNull(printer.report.get());
+    assertEquals(1, CREATED.get());
+  }
+
+  @Test
+  void providersBreakDependencyCycles() {
+    var chicken = jedi.select(Chicken.class).get();
+    var egg = chicken.egg.get();
+    assertNotNull(egg.chicken);
+    assertNotSame(chicken, egg.chicken);
+  }
+
+  @Test
+  void compiledFactoriesInjectLazyInstances() {
+    System.setProperty(GraphCompiler.ENABLED_PROPERTY, "true");
+    jedi = new JeDI(LazyInstanceTest.class.getPackageName());
+
+    var reporter = jedi.select(Reporter.class).get();
+    assertEquals(0, CREATED.get());
+    assertNotNull(reporter.reports.get());
+  }
+
+  @Test
+  void rawProvidersAreRejected() {
+    assertThrows(DefinitionException.class, () -> jedi.select(Raw.class).get());
+  }
+}
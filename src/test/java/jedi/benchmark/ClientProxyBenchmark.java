@@ -0,0 +1,85 @@
+package jedi.benchmark;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.RequestScoped;
+import jedi.JeDI;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares calls through the client proxy of an {@code @ApplicationScoped} and a {@code @RequestScoped} bean with
+ * direct calls on the instance.
+ * <p>
+ * Benchmarks are not run by the build, run {@link #main} on the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientProxyBenchmark {
+
+  @ApplicationScoped
+  public static class Codec {
+    private int calls;
+
+    public int encode(int value) {
+      return value ^ ++calls;
+    }
+  }
+
+  @RequestScoped
+  public static class RequestCodec extends Codec {
+  }
+
+  private JeDI         jedi;
+  private Codec        codec;
+  private Codec        codecProxy;
+  private RequestCodec requestCodec;
+  private RequestCodec requestCodecProxy;
+  private int          value;
+
+  @Setup
+  public void setup() {
+    jedi = new JeDI(ClientProxyBenchmark.class.getPackageName());
+    jedi.getRequestContextController().activate();
+    codecProxy = jedi.select(Codec.class).get();
+    requestCodecProxy = jedi.select(RequestCodec.class).get();
+    codec = new Codec();
+    requestCodec = new RequestCodec();
+  }
+
+  @TearDown
+  public void tearDown() {
+    jedi.getRequestContextController().deactivate();
+  }
+
+  @Benchmark
+  public int direct() {
+    return codec.encode(value++);
+  }
+
+  @Benchmark
+  public int applicationScopedProxy() {
+    return codecProxy.encode(value++);
+  }
+
+  @Benchmark
+  public int requestScopedDirect() {
+    return requestCodec.encode(value++);
+  }
+
+  @Benchmark
+  public int requestScopedProxy() {
+    return requestCodecProxy.encode(value++);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ClientProxyBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,85 @@
+package jedi.benchmark;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.Produces;
+import jedi.JeDI;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates a small graph of dependent beans, through a constructor and through a producer method.
+ * <p>
+ * Meant to be run with {@code -prof gc}: {@code gc.alloc.rate.norm} should only account for the beans and their
+ * argument arrays. Benchmarks are not run by the build, run {@link #main} on the test classpath after
+ * {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependentCreationBenchmark {
+
+  public static class Repository {
+  }
+
+  public static class Clock {
+  }
+
+  public static class Service {
+    final Repository repository;
+    final Clock      clock;
+
+    public Service(Repository repository, Clock clock) {
+      this.repository = repository;
+      this.clock = clock;
+    }
+  }
+
+  public static class Report {
+    final Service service;
+
+    Report(Service service) {
+      this.service = service;
+    }
+  }
+
+  public static class ReportFactory {
+    @Produces
+    public Report report(Service service) {
+      return new Report(service);
+    }
+  }
+
+  private Instance<Service> services;
+  private Instance<Report>  reports;
+
+  @Setup
+  public void setup() {
+    var jedi = new JeDI(DependentCreationBenchmark.class.getPackageName());
+    services = jedi.select(Service.class);
+    reports = jedi.select(Report.class);
+  }
+
+  @Benchmark
+  public Service constructorInjection() {
+    return services.get();
+  }
+
+  @Benchmark
+  public Report producerMethodInjection() {
+    return reports.get();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(DependentCreationBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build()).run();
+  }
+}
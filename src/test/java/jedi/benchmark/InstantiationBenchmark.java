@@ -0,0 +1,68 @@
+package jedi.benchmark;
+
+import jedi.ReflectionsHelper;
+import jedi.injection.producer.Instantiator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled {@link Instantiator} with the reflective {@link ReflectionsHelper#newInstance} path and a
+ * plain {@code new}.
+ * <p>
+ * Benchmarks are not run by the build, run {@link #main} on the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantiationBenchmark {
+
+  public static class Service {
+    private final String name;
+    private final Object dependency;
+
+    public Service(String name, Object dependency) {
+      this.name = name;
+      this.dependency = dependency;
+    }
+  }
+
+  private final String name       = "service";
+  private final Object dependency = new Object();
+
+  private Constructor<Service>  constructor;
+  private Instantiator<Service> instantiator;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    constructor = Service.class.getConstructor(String.class, Object.class);
+    instantiator = Instantiator.of(constructor);
+  }
+
+  @Benchmark
+  public Service direct() {
+    return new Service(name, dependency);
+  }
+
+  @Benchmark
+  public Service reflective() {
+    return ReflectionsHelper.newInstance(constructor, List.of(name, dependency));
+  }
+
+  @Benchmark
+  public Service instantiator() {
+    return instantiator.newInstance(new Object[] { name, dependency });
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(InstantiationBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,245 @@
+package jedi.context;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import jedi.JeDI;
+import jedi.bean.ManagedBean;
+import jedi.injection.producer.ConstructorProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static jedi.ReflectionsHelper.getInjectableConstructor;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CreationalContextImplTest {
+  private static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+
+  private JeDI jedi;
+
+  public static class Connection {
+    @PreDestroy
+    void close() {
+      DESTROYED.add("connection");
+    }
+  }
+
+  public static class Plain {
+  }
+
+  public static class Repository {
+    final Connection connection;
+    final Plain      plain;
+
+    public Repository(Connection connection, Plain plain) {
+      this.connection = connection;
+      this.plain = plain;
+    }
+  }
+
+  public static class Base {
+    @PreDestroy
+    void baseDestroy() {
+      DESTROYED.add("base");
+    }
+  }
+
+  public static class Service extends Base {
+    final Repository repository;
+    final Channel    channel;
+
+    public Service(Repository repository, Channel channel) {
+      this.repository = repository;
+      this.channel = channel;
+    }
+
+    @PreDestroy
+    void destroy() {
+      DESTROYED.add("service");
+    }
+  }
+
+  public static class Channel {
+    boolean open = true;
+  }
+
+  public static class Channels {
+    @Produces
+    public Channel open() {
+      return new Channel();
+    }
+
+    public void close(@Disposes Channel channel) {
+      channel.open = false;
+      DESTROYED.add("channel");
+    }
+  }
+
+  public static class Socket {
+  }
+
+  public static class Sockets {
+    @Produces
+    public Socket open() {
+      return new Socket();
+    }
+
+    public void close(@Disposes Socket socket, Connection connection) {
+      DESTROYED.add("socket");
+    }
+  }
+
+  public static class Pipe {
+  }
+
+  public static class Pipes {
+    @Produces
+    public Pipe open() {
+      return new Pipe();
+    }
+
+    public void close(@Disposes Pipe pipe) {
+      DESTROYED.add("pipe");
+    }
+
+    @PreDestroy
+    void destroy() {
+      DESTROYED.add("pipes");
+    }
+  }
+
+  @Singleton
+  public static class Registry {
+    final Connection connection;
+
+    public Registry(Connection connection) {
+      this.connection = connection;
+    }
+
+    @PreDestroy
+    void destroy() {
+      DESTROYED.add("registry");
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    DESTROYED.clear();
+    jedi = new JeDI(CreationalContextImplTest.class.getPackageName());
+  }
+
+  @Test
+  void dependentsAreDestroyedWithTheirInstanceInReverseOrder() {
+    var instance = jedi.select(Service.class);
+    var service = instance.get();
+
+    instance.destroy(service);
+
+    assertEquals(List.of("base", "service", "channel", "connection"), DESTROYED);
+    assertFalse(service.channel.open);
+
+    instance.destroy(service);
+    assertEquals(4, DESTROYED.size(), "an instance is only destroyed once");
+  }
+
+  @Test
+  void closingTheContainerDestroysEverythingLeft() {
+    var service = jedi.select(Service.class).get();
+    jedi.select(Registry.class).get();
+
+    jedi.close();
+
+    assertEquals(List.of("base", "service", "channel", "connection", "registry", "connection"), DESTROYED);
+    assertFalse(service.channel.open);
+  }
+
+  @Test
+  void theDependentsLeftAreDestroyedTheLastCreatedFirst() {
+    jedi.select(Service.class).get();
+    jedi.select(Socket.class).get();
+
+    jedi.close();
+
+    assertEquals(List.of("socket", "connection", "base", "service", "channel", "connection"), DESTROYED);
+  }
+
+  @Test
+  void disposerParametersComeFromTheContainerOfTheProducerAndAreDestroyedAfterIt() {
+    var instance = jedi.select(Socket.class);
+    var socket = instance.get();
+    new JeDI("jedi.resolution.producer");
+
+    instance.destroy(socket);
+
+    assertEquals(List.of("socket", "connection"), DESTROYED);
+  }
+
+  @Test
+  void theDependentInstancesOfTheProducerClassAreDestroyedAfterEachCall() {
+    var instance = jedi.select(Pipe.class);
+    var pipe = instance.get();
+    assertEquals(List.of("pipes"), DESTROYED);
+
+    instance.destroy(pipe);
+
+    assertEquals(List.of("pipes", "pipe", "pipes"), DESTROYED);
+  }
+
+  @Test
+  void instancesWithNothingToDestroyAreNotRecorded() {
+    var context = new CreationalContextImpl<Object>();
+    CreationalContextImpl.createDependent(bean(Plain.class), context);
+    assertFalse(context.hasDependents());
+
+    CreationalContextImpl.createDependent(bean(Connection.class), context);
+    assertTrue(context.hasDependents());
+  }
+
+  @Test
+  void releaseDestroysThousandsOfDependentsOnce() {
+    var context = new CreationalContextImpl<Object>();
+    var destroyed = new ArrayList<String>();
+    for (int i = 0; i < 10_000; i++)
+      CreationalContextImpl.createDependent(new Named(String.valueOf(i), destroyed), context);
+
+    context.release();
+    context.release();
+
+    assertEquals(10_000, destroyed.size());
+    assertEquals("9999", destroyed.get(0));
+    assertEquals("0", destroyed.get(9_999));
+    assertFalse(context.hasDependents());
+  }
+
+  private static <T> ManagedBean<T> bean(Class<T> type) {
+    return new ManagedBean<>(type, new ConstructorProducer<>(getInjectableConstructor(type), Set.of()));
+  }
+
+  private static class Named implements Contextual<String> {
+    private final String       name;
+    private final List<String> destroyed;
+
+    Named(String name, List<String> destroyed) {
+      this.name = name;
+      this.destroyed = destroyed;
+    }
+
+    @Override
+    public String create(CreationalContext<String> creationalContext) {
+      return name;
+    }
+
+    @Override
+    public void destroy(String instance, CreationalContext<String> creationalContext) {
+      destroyed.add(instance);
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package jedi.context;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.inject.CreationException;
+import jedi.JeDI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PooledContextTest {
+  private static final AtomicInteger CREATED   = new AtomicInteger();
+  private static final AtomicInteger DESTROYED = new AtomicInteger();
+
+  private JeDI jedi;
+
+  @Pooled(maxSize = 2, maxWaitMillis = 50)
+  public static class Parser {
+    private final AtomicInteger users = new AtomicInteger();
+
+    public Parser() {
+      CREATED.incrementAndGet();
+    }
+
+    @PreDestroy
+    void destroy() {
+      DESTROYED.incrementAndGet();
+    }
+  }
+
+  @Pooled(maxSize = 4, maxIdleMillis = 1)
+  public static class Digest {
+  }
+
+  public static class Importer {
+    final Parser parser;
+
+    public Importer(Parser parser) {
+      this.parser = parser;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    CREATED.set(0);
+    DESTROYED.set(0);
+    jedi = new JeDI(PooledContextTest.class.getPackageName());
+  }
+
+  @AfterEach
+  void tearDown() {
+    jedi.close();
+  }
+
+  @Test
+  void closedHandlesGiveTheirInstanceBackToThePool() {
+    var instance = jedi.select(Parser.class);
+    Parser first;
+    try (var handle = instance.getHandle()) {
+      first = handle.get();
+      assertSame(first, handle.get());
+    }
+    try (var handle = instance.getHandle()) {
+      assertSame(first, handle.get());
+    }
+    var parser = instance.get();
+    assertSame(first, parser);
+    instance.destroy(parser);
+    assertSame(first, instance.get());
+
+    assertEquals(1, CREATED.get());
+    var metrics = metrics(Parser.class);
+    assertEquals(4, metrics.getAcquisitions());
+    assertEquals(3, metrics.getHits());
+    assertEquals(0.75, metrics.getHitRate());
+    assertEquals(1, metrics.getInUse());
+  }
+
+  @Test
+  void destroyedHandlesDestroyTheirInstance() {
+    var instance = jedi.select(Parser.class);
+    var handle = instance.getHandle();
+    var parser = handle.get();
+    handle.destroy();
+    handle.close();
+
+    assertEquals(1, DESTROYED.get());
+    assertThrows(IllegalStateException.class, handle::get);
+    assertNotSame(parser, instance.get());
+    assertEquals(0, metrics(Parser.class).getIdle());
+  }
+
+  @Test
+  void exhaustedPoolsWaitForAnInstanceThenGiveUp() throws Exception {
+    var instance = jedi.select(Parser.class);
+    var first = instance.get();
+    instance.get();
+
+    assertThrows(CreationException.class, instance::get);
+
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      var started = new CountDownLatch(1);
+      Future<Parser> waiting = executor.submit(() -> {
+        started.countDown();
+        return jedi.select(Parser.class).get();
+      });
+      started.await();
+      Thread.sleep(10);
+      instance.destroy(first);
+      assertSame(first, waiting.get(1, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(2, CREATED.get());
+    var metrics = metrics(Parser.class);
+    assertEquals(2, metrics.getWaits());
+    assertEquals(1, metrics.getTimeouts());
+    assertFalse(metrics.getMaxWait().isZero());
+  }
+
+  @Test
+  void idleInstancesAreEvicted() throws InterruptedException {
+    var instance = jedi.select(Digest.class);
+    var digest = instance.get();
+    instance.destroy(digest);
+    Thread.sleep(5);
+
+    assertNotSame(digest, instance.get());
+    assertEquals(1, metrics(Digest.class).getEvictions());
+  }
+
+  @Test
+  void injectedInstancesGoBackToThePoolWithTheirBean() {
+    var instance = jedi.select(Importer.class);
+    var importer = instance.get();
+    instance.destroy(importer);
+
+    assertSame(importer.parser, jedi.select(Parser.class).get());
+    assertEquals(1, CREATED.get());
+  }
+
+  @Test
+  void closingTheContainerDestroysPooledInstances() {
+    var instance = jedi.select(Parser.class);
+    instance.destroy(instance.get());
+    instance.get();
+
+    jedi.close();
+
+    assertEquals(1, DESTROYED.get());
+  }
+
+  @Test
+  void instancesAreNeverSharedBetweenThreads() throws Exception {
+    var executor = Executors.newFixedThreadPool(8);
+    var seen = ConcurrentHashMap.<Parser>newKeySet();
+    try {
+      var tasks = new ArrayList<Future<?>>();
+      for (int t = 0; t < 8; t++)
+        tasks.add(executor.submit(() -> {
+          var instance = jedi.select(Parser.class);
+          for (int i = 0; i < 1_000; i++) {
+            var parser = getPatiently(instance);
+            assertEquals(1, parser.users.incrementAndGet());
+            seen.add(parser);
+            parser.users.decrementAndGet();
+            instance.destroy(parser);
+          }
+        }));
+      for (var task : tasks)
+        task.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+    assertTrue(seen.size() <= 2, "created " + seen.size());
+    assertEquals(Set.copyOf(seen).size(), CREATED.get());
+  }
+
+  private static Parser getPatiently(jakarta.enterprise.inject.Instance<Parser> instance) {
+    while (true) {
+      try {
+        return instance.get();
+      } catch (CreationException e) {
+        // timed out behind the other threads, try again
+      }
+    }
+  }
+
+  private PoolMetrics metrics(Class<?> beanClass) {
+    return ((PooledContext) jedi.getContext(Pooled.class)).getMetrics(beanClass);
+  }
+}
@@ -0,0 +1,110 @@
+package jedi.context;
+
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jedi.JeDI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestContextTest {
+  private JeDI jedi;
+
+  @RequestScoped
+  public static class Session {
+    public Session self() {
+      return this;
+    }
+  }
+
+  public static class Handler {
+    final Session session;
+
+    public Handler(Session session) {
+      this.session = session;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    jedi = new JeDI(RequestContextTest.class.getPackageName());
+  }
+
+  @Test
+  void requestScopedBeansLiveForTheRequest() {
+    var controller = jedi.getRequestContextController();
+    assertTrue(controller.activate());
+    assertFalse(controller.activate());
+    var proxy = jedi.select(Session.class).get();
+    var session = proxy.self();
+    assertNotSame(proxy, session);
+    assertSame(session, jedi.select(Handler.class).get().session.self());
+    controller.deactivate();
+
+    controller.activate();
+    try {
+      assertNotSame(session, proxy.self());
+    } finally {
+      controller.deactivate();
+    }
+  }
+
+  @Test
+  void requestContextIsNotActiveOutsideOfARequest() {
+    assertFalse(jedi.getContext(RequestScoped.class).isActive());
+    var session = jedi.select(Session.class).get();
+    assertThrows(ContextNotActiveException.class, session::self);
+  }
+
+  @Test
+  void requestContextIsNotInheritedByOtherThreads() {
+    var controller = jedi.getRequestContextController();
+    controller.activate();
+    try {
+      var active = CompletableFuture.supplyAsync(() -> jedi.getContext(RequestScoped.class).isActive(),
+          runnable -> new Thread(runnable).start());
+      assertFalse(active.join());
+    } finally {
+      controller.deactivate();
+    }
+  }
+
+  @Test
+  void instancesAreDestroyedInReverseOrderOnDeactivation() {
+    var context = new RequestContext();
+    var destroyed = new ArrayList<String>();
+    context.activate();
+    for (var name : List.of("a", "b", "c", "d", "e"))
+      assertEquals(name, context.get(new Named(name, destroyed), null));
+    context.deactivate();
+
+    assertEquals(List.of("e", "d", "c", "b", "a"), destroyed);
+  }
+
+  private static class Named implements Contextual<String> {
+    private final String       name;
+    private final List<String> destroyed;
+
+    Named(String name, List<String> destroyed) {
+      this.name = name;
+      this.destroyed = destroyed;
+    }
+
+    @Override
+    public String create(CreationalContext<String> creationalContext) {
+      return name;
+    }
+
+    @Override
+    public void destroy(String instance, CreationalContext<String> creationalContext) {
+      destroyed.add(instance);
+    }
+  }
+}
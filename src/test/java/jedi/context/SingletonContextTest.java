@@ -0,0 +1,111 @@
+package jedi.context;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import jedi.JeDI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingletonContextTest {
+  private static final AtomicInteger CREATED = new AtomicInteger();
+
+  private JeDI jedi;
+
+  @Singleton
+  public static class Pool {
+    public Pool() {
+      CREATED.incrementAndGet();
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @ApplicationScoped
+  public static class Codec {
+  }
+
+  public static class Client {
+    final Pool  pool;
+    final Codec codec;
+
+    public Client(Pool pool, Codec codec) {
+      this.pool = pool;
+      this.codec = codec;
+    }
+  }
+
+  public static class Connection {
+  }
+
+  public static class ConnectionFactory {
+    @Produces
+    @Singleton
+    public Connection connection() {
+      return new Connection();
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    CREATED.set(0);
+    jedi = new JeDI(SingletonContextTest.class.getPackageName());
+  }
+
+  @Test
+  void scopedBeansAreCreatedOncePerContainer() {
+    var client = jedi.select(Client.class).get();
+    var other = jedi.select(Client.class).get();
+
+    assertNotSame(client, other);
+    assertSame(client.pool, other.pool);
+    assertSame(client.codec, other.codec);
+    assertSame(client.pool, jedi.select(Pool.class).get());
+    assertSame(jedi.select(Connection.class).get(), jedi.select(Connection.class).get());
+    assertEquals(1, CREATED.get());
+  }
+
+  @Test
+  void eachContainerHasItsOwnInstances() {
+    var pool = jedi.select(Pool.class).get();
+    assertNotSame(pool, new JeDI(SingletonContextTest.class.getPackageName()).select(Pool.class).get());
+  }
+
+  @Test
+  void concurrentFirstAccessCreatesASingleInstance() throws Exception {
+    var threads = 8;
+    var barrier = new CyclicBarrier(threads);
+    var executor = Executors.newFixedThreadPool(threads);
+    try {
+      var futures = new ArrayList<Future<Pool>>();
+      for (int i = 0; i < threads; i++)
+        futures.add(executor.submit(() -> {
+          barrier.await();
+          return jedi.select(Client.class).get().pool;
+        }));
+      var pools = Set.copyOf(get(futures));
+      assertEquals(1, pools.size());
+      assertEquals(1, CREATED.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static <T> List<T> get(List<Future<T>> futures) throws ExecutionException, InterruptedException {
+    var results = new ArrayList<T>();
+    for (var future : futures)
+      results.add(future.get());
+    return results;
+  }
+}
@@ -0,0 +1,73 @@
+package jedi.index;
+
+import jedi.JeDI;
+import org.junit.jupiter.api.Test;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClasspathScanTest {
+
+  interface A {}
+  public static class B implements A {}
+  @Test
+  void findsTheSameBeansAsTheFullScan() {
+    var index = new ClasspathScan("jedi.index").scan();
+    var fullScan = new ReflectionsBeanIndex(new Reflections("jedi.index", Scanners.values()));
+    assertEquals(fullScan.getImplementations(A.class), index.getImplementations(A.class));
+    assertEquals(fullScan.getProducerMethods(), index.getProducerMethods());
+    assertNotNull(new JeDI(index).getBean(A.class));
+  }
+
+  @Test
+  void onlyTheRequiredScannersAreRun() {
+    var store = new ClasspathScan("jedi.index").scan().getReflections().getStore();
+    assertEquals(Set.of(Scanners.SubTypes.index(), Scanners.MethodsAnnotated.index(),
+        ReflectionsBeanIndex.BEAN_CLASSES.index()), store.keySet());
+  }
+
+  public static class Plain {}
+  @Test
+  void indexesTheClassesWithNoSuperType() {
+    var beanClasses = new ClasspathScan("jedi.index").scan().getBeanClasses();
+    assertTrue(beanClasses.contains(Plain.class));
+    assertTrue(beanClasses.contains(B.class));
+    assertFalse(beanClasses.contains(A.class));
+  }
+
+  @Test
+  void reportsTheScannedClasses() {
+    var report = new ClasspathScan("jedi.resolution").parallelism(new ForkJoinPool(2)).scan().getScanReport();
+    assertTrue(report.getScannedClasses() > 0);
+    assertTrue(report.getScannedUrls() > 0);
+    assertFalse(report.getDuration().isNegative());
+  }
+
+  @Test
+  void excludedPackagesAreNotScanned() {
+    var all = new ClasspathScan("jedi.resolution").scan().getScanReport();
+    var index = new ClasspathScan("jedi.resolution").excludePackage("jedi.resolution.dependenttype").scan();
+    assertTrue(index.getScanReport().getScannedClasses() < all.getScannedClasses());
+    assertTrue(index.getProducerMethods().stream()
+        .noneMatch(m -> m.getDeclaringClass().getName().startsWith("jedi.resolution.dependenttype")));
+  }
+
+  @Test
+  void includedPackagesAreAddedToTheScan() {
+    var index = new ClasspathScan("jedi.resolution.producer").includePackage("jedi.index").scan();
+    assertFalse(index.getImplementations(A.class).isEmpty());
+    assertFalse(index.getProducerMethods().isEmpty());
+  }
+
+  @Test
+  void excludedJarsAreNotScanned() {
+    var report = new ClasspathScan("org.reflections").excludeJar(".*reflections.*").scan().getScanReport();
+    assertEquals(0, report.getScannedClasses());
+    assertTrue(new ClasspathScan("org.reflections").includeJar(".*reflections.*").scan()
+        .getScanReport().getScannedClasses() > 0);
+  }
+}
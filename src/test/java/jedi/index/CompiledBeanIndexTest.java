@@ -0,0 +1,145 @@
+package jedi.index;
+
+import jedi.JeDI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledBeanIndexTest {
+  private static final String PREFIX = "jedi.resolution";
+
+  private CompiledBeanIndex    compiledIndex;
+  private ReflectionsBeanIndex scannedIndex;
+
+  @BeforeEach
+  void setUp() {
+    compiledIndex = CompiledBeanIndex.load(PREFIX);
+    scannedIndex = new ReflectionsBeanIndex(new Reflections(PREFIX, Scanners.values()));
+  }
+
+  @Test
+  void theTestSourcesAreIndexedAtCompileTime() {
+    assertNotNull(compiledIndex);
+    assertNull(CompiledBeanIndex.load("not.an.indexed.package"));
+  }
+
+  @Test
+  void jediUsesTheCompiledIndexWhenAvailable() {
+    assertTrue(new JeDI(PREFIX).getMetadata() instanceof CompiledBeanIndex);
+  }
+
+  @Test
+  void theCompiledIndexCanBeDisabled() {
+    System.setProperty(CompiledBeanIndex.ENABLED_PROPERTY, "false");
+    try {
+      assertTrue(new JeDI(PREFIX).getMetadata() instanceof ReflectionsBeanIndex);
+    } finally {
+      System.clearProperty(CompiledBeanIndex.ENABLED_PROPERTY);
+    }
+  }
+
+  @Test
+  void incrementalCompilationsKeepTheEntriesOfTheOtherTypes(@TempDir Path dir) throws IOException {
+    var a = write(dir.resolve("src/p/A.java"), "package p; public class A {}");
+    var b = write(dir.resolve("src/p/B.java"), "package p; public class B {}");
+    var out = Files.createDirectories(dir.resolve("out"));
+    compile(out, a, b);
+    write(b, "package p; public class B extends A {}");
+    compile(out, b);
+
+    var index = Files.readAllLines(out.resolve(CompiledBeanIndex.LOCATION));
+    assertTrue(index.contains("type\tconcrete\tp.A\t\t()"), index::toString);
+    assertTrue(index.contains("type\tconcrete\tp.B\tp.A\t()"), index::toString);
+    assertEquals(3, index.size(), index::toString);
+
+    Files.delete(out.resolve("p/A.class"));
+    write(b, "package p; public class B {}");
+    compile(out, b);
+    assertEquals(List.of(CompiledBeanIndex.HEADER, "type\tconcrete\tp.B\t\t()"),
+        Files.readAllLines(out.resolve(CompiledBeanIndex.LOCATION)));
+  }
+
+  private static Path write(Path file, String source) throws IOException {
+    Files.createDirectories(file.getParent());
+    return Files.writeString(file, source);
+  }
+
+  private static void compile(Path out, Path... sources) throws IOException {
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    try (var files = compiler.getStandardFileManager(null, null, null)) {
+      var task = compiler.getTask(null, files, null, List.of("-d", out.toString(), "-cp", out.toString()), null,
+          files.getJavaFileObjects(sources));
+      task.setProcessors(List.of(new BeanIndexProcessor()));
+      assertTrue(task.call());
+    }
+  }
+
+  interface A {}
+  interface B extends A {}
+  static class C implements B {}
+  abstract static class D implements A {}
+  public static class E extends D {}
+  public static class H extends java.util.AbstractList<String> {
+    public String get(int index) { return null; }
+    public int size() { return 0; }
+  }
+  @Test
+  void concreteTransitiveSubTypes() {
+    var index = CompiledBeanIndex.load("jedi.index");
+    assertEquals(Set.of(C.class, E.class), index.getImplementations(A.class));
+    assertEquals(Set.of(E.class), index.getImplementations(D.class));
+    assertEquals(Set.of(), index.getImplementations(E.class));
+    assertEquals(Set.of(H.class), index.getImplementations(java.util.Collection.class));
+  }
+
+  @Test
+  void sameImplementationsAsTheClasspathScan() throws ClassNotFoundException {
+    var superTypes = scannedIndex.getReflections().getStore().get(Scanners.SubTypes.index()).keySet();
+    assertFalse(superTypes.isEmpty());
+    for (var superType : superTypes) {
+      var type = Class.forName(superType);
+      if (type == Annotation.class)
+        continue; // annotation types are never beans, the index leaves them out
+      // the scan also expands the super types of the scanned classes that are outside of the package
+      assertEquals(inPrefix(scannedIndex.getImplementations(type)), compiledIndex.getImplementations(type), superType);
+    }
+  }
+
+  private static Set<Class<?>> inPrefix(Set<Class<?>> types) {
+    return types.stream().filter(t -> t.getName().startsWith(PREFIX)).collect(Collectors.toSet());
+  }
+
+  @Test
+  void sameProducerMethodsAsTheClasspathScan() {
+    assertFalse(compiledIndex.getProducerMethods().isEmpty());
+    assertEquals(scannedIndex.getProducerMethods(), compiledIndex.getProducerMethods());
+  }
+
+  public class F {
+    public F(String s) {}
+  }
+  public static class G {
+    public G() {}
+    @jakarta.inject.Inject
+    public G(int[] n, F f) {}
+  }
+  @Test
+  void sameInjectableConstructorAsReflection() throws NoSuchMethodException {
+    var index = CompiledBeanIndex.load("jedi.index");
+    assertEquals(F.class.getConstructor(CompiledBeanIndexTest.class, String.class), index.getInjectableConstructor(F.class));
+    assertEquals(G.class.getConstructor(int[].class, F.class), index.getInjectableConstructor(G.class));
+  }
+}
@@ -0,0 +1,121 @@
+package jedi.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScanCacheTest {
+  private static final String PREFIX = "jedi.resolution";
+
+  @TempDir
+  Path directory;
+
+  private ScanCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new ScanCache(directory);
+  }
+
+  @Test
+  void theScanIsStoredAndReadBack() throws IOException {
+    var scanned = cache.scan(PREFIX, Scanners.values());
+    var file = cache.getCacheFile(PREFIX, Scanners.values());
+    assertTrue(Files.isRegularFile(file));
+    var modified = Files.getLastModifiedTime(file);
+
+    var cached = cache.scan(PREFIX, Scanners.values());
+    assertNotSame(scanned, cached);
+    assertEquals(scanned.getStore(), cached.getStore());
+    assertEquals(modified, Files.getLastModifiedTime(file));
+  }
+
+  @Test
+  void theCachedMetadataAnswersTheSameQueries() {
+    cache.scan(PREFIX, Scanners.values());
+    var cached = new ReflectionsBeanIndex(cache.scan(PREFIX, Scanners.values()));
+    var scanned = new ReflectionsBeanIndex(new Reflections(PREFIX, Scanners.values()));
+    assertEquals(scanned.getProducerMethods(), cached.getProducerMethods());
+  }
+
+  @Test
+  void eachPrefixAndScannersHaveTheirOwnCacheFile() {
+    assertNotEquals(cache.getCacheFile(PREFIX, Scanners.values()), cache.getCacheFile("jedi", Scanners.values()));
+    assertNotEquals(cache.getCacheFile(PREFIX, Scanners.values()), cache.getCacheFile(PREFIX, Scanners.SubTypes));
+  }
+
+  @Test
+  void aStaleCacheIsRebuilt() throws IOException {
+    var scanned = cache.scan(PREFIX, Scanners.values());
+    var file = cache.getCacheFile(PREFIX, Scanners.values());
+    var bytes = Files.readAllBytes(file);
+    bytes[8] ^= 1; // first byte of the fingerprint
+    Files.write(file, bytes);
+
+    var rebuilt = cache.scan(PREFIX, Scanners.values());
+    assertEquals(scanned.getStore(), rebuilt.getStore());
+    assertNotEquals(bytes[8], Files.readAllBytes(file)[8]);
+  }
+
+  @Test
+  void theFingerprintChangesWithTheScannedFiles() throws IOException {
+    var classes = Files.createDirectories(directory.resolve("classes"));
+    var classFile = Files.write(classes.resolve("A.class"), new byte[] {1, 2});
+    var urls = List.of(toUrl(classes));
+    var fingerprint = ScanCache.fingerprint(urls);
+    assertArrayEquals(fingerprint, ScanCache.fingerprint(urls));
+
+    Files.setLastModifiedTime(classFile, FileTime.fromMillis(Files.getLastModifiedTime(classFile).toMillis() + 1000));
+    var touched = ScanCache.fingerprint(urls);
+    assertFalse(Arrays.equals(fingerprint, touched));
+
+    Files.write(classes.resolve("B.class"), new byte[] {3});
+    assertFalse(Arrays.equals(touched, ScanCache.fingerprint(urls)));
+  }
+
+  @Test
+  void theFingerprintChangesWithTheScannedJars() throws IOException {
+    var jar = Files.write(directory.resolve("beans.jar"), new byte[] {1, 2});
+    var urls = List.of(new URL("jar:" + jar.toUri() + "!/"));
+    var fingerprint = ScanCache.fingerprint(urls);
+    assertNotNull(fingerprint);
+
+    Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+    assertFalse(Arrays.equals(fingerprint, ScanCache.fingerprint(urls)));
+  }
+
+  @Test
+  void locationsTellingNoStampAreNotFingerprinted() throws IOException {
+    var handler = new URLStreamHandler() {
+      @Override
+      protected URLConnection openConnection(URL url) {
+        return new URLConnection(url) {
+          @Override
+          public void connect() {
+          }
+        };
+      }
+    };
+    var opaque = new URL("opaque", "", -1, "/beans", handler);
+    assertNull(ScanCache.fingerprint(List.of(toUrl(directory), opaque)));
+  }
+
+  private static URL toUrl(Path path) throws MalformedURLException {
+    return path.toUri().toURL();
+  }
+}
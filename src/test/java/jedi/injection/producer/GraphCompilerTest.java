@@ -0,0 +1,68 @@
+package jedi.injection.producer;
+
+import jedi.JeDI;
+import jedi.bean.BeanInstance;
+import jedi.bean.ManagedBean;
+import jedi.injection.producer.graph.ClockFactory;
+import jedi.injection.producer.graph.Root;
+import jedi.injection.producer.graph.Service;
+import jedi.injection.producer.graph.Unreadable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reflections.ReflectionsException;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphCompilerTest {
+  private JeDI jedi;
+
+  @BeforeEach
+  void setUp() {
+    System.setProperty(GraphCompiler.ENABLED_PROPERTY, "true");
+    jedi = new JeDI(Root.class.getPackageName());
+  }
+
+  @AfterEach
+  void tearDown() {
+    System.clearProperty(GraphCompiler.ENABLED_PROPERTY);
+  }
+
+  @Test
+  void wholeGraphIsCreatedByTheGeneratedFactory() {
+    var produced = ClockFactory.PRODUCED.get();
+
+    var root = jedi.select(Root.class).get();
+    var other = jedi.select(Root.class).get();
+
+    assertNotNull(root.service.repository);
+    assertNotNull(root.getHelperRepository());
+    assertNotSame(root.service.repository, root.getHelperRepository());
+    assertNotSame(root.service, other.service);
+    assertEquals(produced + 2, ClockFactory.PRODUCED.get());
+    assertTrue(getProducer(Root.class).getFactory().getClass().getName().contains("$$JeDIFactory"));
+  }
+
+  @Test
+  void dependenciesAreOnlyCompiledWhenCreatedOnTheirOwn() {
+    jedi.select(Root.class).get();
+    assertNull(getProducer(Service.class).getFactory());
+
+    assertNotNull(jedi.select(Service.class).get().clock);
+    assertNotNull(getProducer(Service.class).getFactory());
+  }
+
+  @Test
+  void checkedConstructorExceptionsAreWrapped() {
+    var e = assertThrows(ReflectionsException.class, () -> jedi.select(Unreadable.class).get());
+    assertTrue(e.getCause() instanceof IOException);
+    assertTrue(getProducer(Unreadable.class).getFactory().getClass().getName().contains("$$JeDIFactory"));
+  }
+
+  private CompiledProducer<?> getProducer(Class<?> type) {
+    var bean = (ManagedBean<?>) ((BeanInstance<?>) jedi.select(type)).findBean();
+    return (CompiledProducer<?>) bean.getProducer();
+  }
+}
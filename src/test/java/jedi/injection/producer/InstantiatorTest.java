@@ -0,0 +1,93 @@
+package jedi.injection.producer;
+
+import org.junit.jupiter.api.Test;
+import org.reflections.ReflectionsException;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstantiatorTest {
+
+  public static class NoArgs {
+  }
+
+  public static class Primitives {
+    final int    number;
+    final String name;
+
+    public Primitives(int number, String name) {
+      this.number = number;
+      this.name = name;
+    }
+  }
+
+  public static class FiveArgs {
+    final Object[] args;
+
+    public FiveArgs(String a, String b, String c, String d, Integer e) {
+      args = new Object[] { a, b, c, d, e };
+    }
+  }
+
+  static class PackagePrivate {
+    private PackagePrivate() {
+    }
+  }
+
+  public static class Failing {
+    public Failing() {
+      throw new IllegalStateException("failed");
+    }
+  }
+
+  public static class CheckedFailing {
+    public CheckedFailing() throws IOException {
+      throw new IOException("failed");
+    }
+
+    public CheckedFailing(String a, String b, String c, String d, String e) throws IOException {
+      throw new IOException("failed with " + e);
+    }
+  }
+
+  @Test
+  void instancesAreCreatedForEveryArity() throws NoSuchMethodException {
+    assertNotNull(Instantiator.of(NoArgs.class.getConstructor()).newInstance(new Object[0]));
+
+    var primitives = Instantiator.of(Primitives.class.getConstructor(int.class, String.class))
+        .newInstance(new Object[] { 42, "name" });
+    assertEquals(42, primitives.number);
+    assertEquals("name", primitives.name);
+
+    var fiveArgs = Instantiator.of(FiveArgs.class.getConstructor(String.class, String.class, String.class,
+        String.class, Integer.class)).newInstance(new Object[] { "a", "b", "c", "d", 5 });
+    assertArrayEquals(new Object[] { "a", "b", "c", "d", 5 }, fiveArgs.args);
+  }
+
+  @Test
+  void privateConstructorsAreInstantiated() throws NoSuchMethodException {
+    assertNotNull(Instantiator.of(PackagePrivate.class.getDeclaredConstructor()).newInstance(new Object[0]));
+  }
+
+  @Test
+  void constructorExceptionsArePropagated() throws NoSuchMethodException {
+    var instantiator = Instantiator.of(Failing.class.getConstructor());
+    var e = assertThrows(IllegalStateException.class, () -> instantiator.newInstance(new Object[0]));
+    assertEquals("failed", e.getMessage());
+  }
+
+  @Test
+  void checkedConstructorExceptionsAreWrappedWhateverTheArity() throws NoSuchMethodException {
+    var factory = Instantiator.of(CheckedFailing.class.getConstructor());
+    var e = assertThrows(ReflectionsException.class, () -> factory.newInstance(new Object[0]));
+    assertTrue(e.getCause() instanceof IOException);
+    assertEquals("failed", e.getCause().getMessage());
+
+    var handle = Instantiator.of(CheckedFailing.class.getConstructor(String.class, String.class, String.class,
+        String.class, String.class));
+    e = assertThrows(ReflectionsException.class, () -> handle.newInstance(new Object[] { "a", "b", "c", "d", "e" }));
+    assertTrue(e.getCause() instanceof IOException);
+    assertEquals("failed with e", e.getCause().getMessage());
+  }
+}
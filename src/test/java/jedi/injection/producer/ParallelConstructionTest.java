@@ -0,0 +1,74 @@
+package jedi.injection.producer;
+
+import jedi.JeDI;
+import jedi.injection.producer.parallel.Closeable;
+import jedi.injection.producer.parallel.Independent;
+import jedi.injection.producer.parallel.PartlyFailing;
+import jedi.injection.producer.parallel.Sharing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelConstructionTest {
+  private JeDI            jedi;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    jedi = new JeDI(Independent.class.getPackageName());
+    executor = Executors.newCachedThreadPool();
+    jedi.setConstructionExecutor(executor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jedi.close();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void independentArgumentsAreCreatedConcurrently() {
+    var start = System.nanoTime();
+    var independent = jedi.select(Independent.class).get();
+    var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertSame(Thread.currentThread(), independent.slow.thread);
+    assertNotSame(Thread.currentThread(), independent.alsoSlow.thread);
+    assertTrue(elapsedMillis < 200, "created in " + elapsedMillis + " ms");
+  }
+
+  @Test
+  void argumentsSharingAScopedBeanAreCreatedOnTheSameThread() {
+    var sharing = jedi.select(Sharing.class).get();
+
+    assertSame(sharing.user.shared, sharing.otherUser.shared);
+    assertSame(Thread.currentThread(), sharing.user.thread);
+    assertSame(Thread.currentThread(), sharing.otherUser.thread);
+  }
+
+  @Test
+  void argumentsCreatedAlongAFailingOneAreDestroyed() {
+    var closed = Closeable.CLOSED.get();
+
+    var e = assertThrows(IllegalStateException.class, () -> jedi.select(PartlyFailing.class).get());
+
+    assertEquals("cannot be created", e.getMessage());
+    assertEquals(closed + 1, Closeable.CLOSED.get());
+  }
+
+  @Test
+  void argumentsAreCreatedOneAfterAnotherWithoutExecutor() {
+    var jedi = new JeDI(Independent.class.getPackageName());
+
+    var independent = jedi.select(Independent.class).get();
+
+    assertSame(Thread.currentThread(), independent.slow.thread);
+    assertSame(Thread.currentThread(), independent.alsoSlow.thread);
+    jedi.close();
+  }
+}
@@ -0,0 +1,52 @@
+package jedi.injection.producer;
+
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Default;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import static jedi.ReflectionsHelper.getQualifiers;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProducerRegistryTest {
+
+  public List<String> getNames() {
+    return List.of();
+  }
+  @Named("numbers")
+  public List<Integer> getNumbers() {
+    return List.of();
+  }
+  public String getName() {
+    return "";
+  }
+  @Test
+  void producersAreFoundByRawAndGenericReturnType() throws NoSuchMethodException {
+    var names = method("getNames");
+    var numbers = method("getNumbers");
+    var registry = new ProducerRegistry(List.of(names, numbers, method("getName")));
+
+    assertEquals(Set.of(names, numbers), registry.find(List.class, Set.of()));
+    assertEquals(Set.of(names), registry.find(names.getGenericReturnType(), Set.of()));
+    assertEquals(Set.of(numbers), registry.find(numbers.getGenericReturnType(), Set.of()));
+    assertTrue(registry.find(Integer.class, Set.of()).isEmpty());
+  }
+
+  @Test
+  void producersAreFilteredByQualifiers() throws NoSuchMethodException {
+    var names = method("getNames");
+    var numbers = method("getNumbers");
+    var registry = new ProducerRegistry(List.of(names, numbers));
+
+    assertEquals(Set.of(names, numbers), registry.find(List.class, Set.of(Any.Literal.INSTANCE, Default.Literal.INSTANCE)));
+    assertEquals(Set.of(numbers), registry.find(List.class, getQualifiers(numbers)));
+  }
+
+  private Method method(String name) throws NoSuchMethodException {
+    return getClass().getDeclaredMethod(name);
+  }
+}
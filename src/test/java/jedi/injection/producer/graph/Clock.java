@@ -0,0 +1,6 @@
+package jedi.injection.producer.graph;
+
+public class Clock {
+  Clock() {
+  }
+}
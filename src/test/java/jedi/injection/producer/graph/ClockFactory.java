@@ -0,0 +1,15 @@
+package jedi.injection.producer.graph;
+
+import jakarta.enterprise.inject.Produces;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClockFactory {
+  public static final AtomicInteger PRODUCED = new AtomicInteger();
+
+  @Produces
+  public Clock clock() {
+    PRODUCED.incrementAndGet();
+    return new Clock();
+  }
+}
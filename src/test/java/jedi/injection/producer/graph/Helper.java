@@ -0,0 +1,9 @@
+package jedi.injection.producer.graph;
+
+class Helper {
+  final Repository repository;
+
+  Helper(Repository repository) {
+    this.repository = repository;
+  }
+}
@@ -0,0 +1,4 @@
+package jedi.injection.producer.graph;
+
+public class Repository {
+}
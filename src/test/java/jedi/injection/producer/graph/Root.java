@@ -0,0 +1,15 @@
+package jedi.injection.producer.graph;
+
+public class Root {
+  public final Service service;
+  final Helper         helper;
+
+  public Root(Service service, Helper helper) {
+    this.service = service;
+    this.helper = helper;
+  }
+
+  public Repository getHelperRepository() {
+    return helper.repository;
+  }
+}
@@ -0,0 +1,11 @@
+package jedi.injection.producer.graph;
+
+public class Service {
+  public final Repository repository;
+  public final Clock      clock;
+
+  public Service(Repository repository, Clock clock) {
+    this.repository = repository;
+    this.clock = clock;
+  }
+}
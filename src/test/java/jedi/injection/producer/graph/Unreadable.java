@@ -0,0 +1,9 @@
+package jedi.injection.producer.graph;
+
+import java.io.IOException;
+
+public class Unreadable {
+  public Unreadable() throws IOException {
+    throw new IOException("unreadable");
+  }
+}
@@ -0,0 +1,9 @@
+package jedi.injection.producer.parallel;
+
+public class AlsoSlow {
+  public final Thread thread = Thread.currentThread();
+
+  public AlsoSlow() throws InterruptedException {
+    Thread.sleep(100);
+  }
+}
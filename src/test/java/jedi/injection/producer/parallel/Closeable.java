@@ -0,0 +1,14 @@
+package jedi.injection.producer.parallel;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Closeable {
+  public static final AtomicInteger CLOSED = new AtomicInteger();
+
+  @PreDestroy
+  void close() {
+    CLOSED.incrementAndGet();
+  }
+}
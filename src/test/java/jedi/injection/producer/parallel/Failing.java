@@ -0,0 +1,8 @@
+package jedi.injection.producer.parallel;
+
+public class Failing {
+
+  public Failing() {
+    throw new IllegalStateException("cannot be created");
+  }
+}
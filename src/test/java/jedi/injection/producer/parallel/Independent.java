@@ -0,0 +1,11 @@
+package jedi.injection.producer.parallel;
+
+public class Independent {
+  public final Slow     slow;
+  public final AlsoSlow alsoSlow;
+
+  public Independent(Slow slow, AlsoSlow alsoSlow) {
+    this.slow = slow;
+    this.alsoSlow = alsoSlow;
+  }
+}
@@ -0,0 +1,10 @@
+package jedi.injection.producer.parallel;
+
+public class OtherSharingUser {
+  public final Thread thread = Thread.currentThread();
+  public final Shared shared;
+
+  public OtherSharingUser(Shared shared) {
+    this.shared = shared;
+  }
+}
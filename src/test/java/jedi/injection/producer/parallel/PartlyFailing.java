@@ -0,0 +1,6 @@
+package jedi.injection.producer.parallel;
+
+public class PartlyFailing {
+
+  public PartlyFailing(Failing failing, Closeable closeable) {}
+}
@@ -0,0 +1,6 @@
+package jedi.injection.producer.parallel;
+
+import jakarta.inject.Singleton;
+
+@Singleton
+public class Shared {}
@@ -0,0 +1,11 @@
+package jedi.injection.producer.parallel;
+
+public class Sharing {
+  public final SharingUser      user;
+  public final OtherSharingUser otherUser;
+
+  public Sharing(SharingUser user, OtherSharingUser otherUser) {
+    this.user = user;
+    this.otherUser = otherUser;
+  }
+}
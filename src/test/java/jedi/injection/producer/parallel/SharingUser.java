@@ -0,0 +1,10 @@
+package jedi.injection.producer.parallel;
+
+public class SharingUser {
+  public final Thread thread = Thread.currentThread();
+  public final Shared shared;
+
+  public SharingUser(Shared shared) {
+    this.shared = shared;
+  }
+}
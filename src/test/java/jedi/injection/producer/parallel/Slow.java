@@ -0,0 +1,9 @@
+package jedi.injection.producer.parallel;
+
+public class Slow {
+  public final Thread thread = Thread.currentThread();
+
+  public Slow() throws InterruptedException {
+    Thread.sleep(100);
+  }
+}
@@ -0,0 +1,90 @@
+package jedi.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import jedi.JeDI;
+import jedi.resolution.bootstrap.valid.Controller;
+import jedi.resolution.bootstrap.valid.Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventsTest {
+  private static final String PREFIX = "jedi.resolution.bootstrap.valid";
+
+  @TempDir
+  Path directory;
+
+  private List<RecordedEvent> events;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    try (var recording = new Recording()) {
+      recording.enable(ScanEvent.class);
+      recording.enable(ResolutionEvent.class);
+      recording.enable(CreationEvent.class);
+      recording.start();
+      var jedi = new JeDI(PREFIX);
+      jedi.select(Controller.class).get();
+      jedi.select(Controller.class);
+      recording.stop();
+      var file = directory.resolve("jedi.jfr");
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+    }
+  }
+
+  @Test
+  void scanIsRecorded() {
+    var scans = events("jedi.Scan");
+
+    assertEquals(1, scans.size());
+    assertEquals(PREFIX, scans.get(0).getString("prefix"));
+    assertEquals(ScanEvent.COMPILED, scans.get(0).getString("source"));
+  }
+
+  @Test
+  void resolutionsAreRecordedWithTheirCacheHits() {
+    var resolutions = events("jedi.Resolution").stream()
+        .filter(e -> e.getString("type").equals(Controller.class.getName()))
+        .collect(Collectors.toList());
+
+    assertEquals(2, resolutions.size());
+    assertFalse(resolutions.get(0).getBoolean("cacheHit"));
+    assertTrue(resolutions.get(1).getBoolean("cacheHit"));
+    assertTrue(resolutions.get(0).getString("qualifiers").contains("Default"));
+  }
+
+  @Test
+  void creationsAreRecordedWithTheirDepth() {
+    var creations = events("jedi.Creation");
+
+    assertEquals(0, depthOf(creations, Controller.class));
+    assertEquals(1, depthOf(creations, Service.class));
+    assertTrue(creations.stream().allMatch(e -> e.getDuration().toNanos() >= 0));
+  }
+
+  private List<RecordedEvent> events(String name) {
+    return events.stream()
+        .filter(e -> e.getEventType().getName().equals(name))
+        .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+        .collect(Collectors.toList());
+  }
+
+  private static int depthOf(List<RecordedEvent> creations, Class<?> beanClass) {
+    return creations.stream()
+        .filter(e -> ((RecordedClass) e.getValue("beanClass")).getName().equals(beanClass.getName()))
+        .findFirst()
+        .orElseThrow()
+        .getInt("depth");
+  }
+}
@@ -0,0 +1,145 @@
+package jedi.metrics;
+
+import jakarta.inject.Singleton;
+import jedi.JeDI;
+import jedi.index.ClasspathScan;
+import jedi.injection.producer.GraphCompiler;
+import jedi.resolution.bootstrap.startup.Cache;
+import jedi.resolution.bootstrap.startup.Warmup;
+import jedi.resolution.bootstrap.valid.Clock;
+import jedi.resolution.bootstrap.valid.Controller;
+import jedi.resolution.bootstrap.valid.Service;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+  @Nested
+  class Histogram {
+
+    @Test
+    void bucketsCoverEveryValue() {
+      for (long value : new long[] { 0, 1, 7, 8, 15, 16, 1000, 123_456_789, Long.MAX_VALUE }) {
+        var index = LatencyHistogram.index(value);
+        assertTrue(index < LatencyHistogram.BUCKETS);
+        assertTrue(LatencyHistogram.upperBound(index) >= value, "bucket of " + value);
+        assertTrue(index == 0 || LatencyHistogram.upperBound(index - 1) < value, "bucket of " + value);
+      }
+    }
+
+    @Test
+    void percentilesAreWithinTheirBucket() {
+      var histogram = new LatencyHistogram();
+      for (int i = 1; i <= 1000; i++)
+        histogram.record(i * 1000L);
+
+      var snapshot = histogram.snapshot();
+
+      assertEquals(1000, snapshot.getCount());
+      assertWithin(500_000, snapshot.getMedian());
+      assertWithin(990_000, snapshot.getPercentile(0.99));
+      assertEquals(Duration.ofNanos(1_000_000), snapshot.getPercentile(1));
+      assertEquals(Duration.ofNanos(1_000_000), snapshot.getMax());
+    }
+
+    @Test
+    void emptyHistogramHasNoLatency() {
+      assertEquals(Duration.ZERO, new LatencyHistogram().snapshot().getPercentile(0.99));
+    }
+
+    private void assertWithin(long expectedNanos, Duration actual) {
+      assertTrue(actual.toNanos() >= expectedNanos && actual.toNanos() <= expectedNanos * 1.125,
+          actual + " for " + expectedNanos + " ns");
+    }
+  }
+
+  @Nested
+  class Container {
+
+    @Test
+    void selectionsAreCountedAsHitsOrMisses() {
+      var jedi = new JeDI("jedi.resolution.bootstrap.valid");
+
+      jedi.select(Controller.class).get();
+      jedi.select(Controller.class).get();
+      var metrics = jedi.getMetrics();
+
+      assertTrue(metrics.getSelectMisses() >= 4, metrics.toString());
+      assertTrue(metrics.getSelectHits() >= 1, metrics.toString());
+      assertEquals(metrics.getSelectMisses(), metrics.getResolutionLatency().getCount());
+      assertTrue(metrics.getScanTime().compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void instancesAreCountedPerBeanClass() {
+      var jedi = new JeDI("jedi.resolution.bootstrap.valid");
+
+      jedi.select(Controller.class).get();
+      jedi.select(Controller.class).get();
+      var metrics = jedi.getMetrics();
+
+      assertEquals(2, metrics.getCreatedInstances(Controller.class));
+      assertEquals(2, metrics.getCreatedInstances(Service.class));
+      assertEquals(2, metrics.getCreatedInstances(Clock.class));
+    }
+
+    @Test
+    void instancesCreatedByACompiledGraphAreCounted() {
+      System.setProperty(GraphCompiler.ENABLED_PROPERTY, "true");
+      try {
+        var jedi = new JeDI("jedi.resolution.bootstrap.valid");
+
+        jedi.select(Controller.class).get();
+        jedi.select(Controller.class).get();
+        var metrics = jedi.getMetrics();
+
+        assertEquals(2, metrics.getCreatedInstances(Controller.class));
+        assertEquals(2, metrics.getCreatedInstances(Service.class));
+        assertEquals(2, metrics.getCreatedInstances(Clock.class));
+      } finally {
+        System.clearProperty(GraphCompiler.ENABLED_PROPERTY);
+      }
+    }
+
+    @Test
+    void theScanTimeOfAClasspathScanIsReported() {
+      var index = new ClasspathScan("jedi.resolution.bootstrap.valid").scan();
+
+      var metrics = new JeDI(index).getMetrics();
+
+      assertEquals(index.getScanReport().getDuration(), metrics.getScanTime());
+      assertTrue(metrics.getScanTime().compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void liveScopedInstancesAreCounted() {
+      var jedi = new JeDI("jedi.resolution.bootstrap.startup");
+
+      jedi.select(Warmup.class).get();
+      jedi.select(Warmup.class).get();
+
+      var metrics = jedi.getMetrics();
+      assertEquals(2, metrics.getLiveInstances().get(Singleton.class));
+      assertEquals(1, metrics.getCreatedInstances(Cache.class));
+      jedi.close();
+      assertEquals(0, jedi.getMetrics().getLiveInstances().get(Singleton.class));
+    }
+
+    @Test
+    void snapshotsAreHandedToTheExporter() {
+      var jedi = new JeDI("jedi.resolution.bootstrap.valid");
+      var exported = new ArrayList<MetricsSnapshot>();
+
+      jedi.select(Controller.class).get();
+      jedi.exportMetrics(exported::add);
+
+      assertEquals(1, exported.size());
+      assertEquals(1, exported.get(0).getCreatedInstances(Controller.class));
+    }
+  }
+}
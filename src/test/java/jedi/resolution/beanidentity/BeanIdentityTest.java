@@ -0,0 +1,78 @@
+package jedi.resolution.beanidentity;
+
+import jakarta.enterprise.inject.Produces;
+import jakarta.enterprise.util.AnnotationLiteral;
+import jakarta.enterprise.util.TypeLiteral;
+import jakarta.inject.Qualifier;
+import jakarta.inject.Singleton;
+import jedi.JeDI;
+import jedi.context.Pooled;
+import jedi.context.PooledContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Retention;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeanIdentityTest {
+  private JeDI jedi;
+
+  @Qualifier
+  @Retention(RUNTIME)
+  public @interface Light {}
+
+  @Singleton
+  @Light
+  public static class Pool {}
+
+  public static class Box<T> {}
+
+  public static class Boxes {
+    @Produces
+    @Singleton
+    public Box<String> strings() {
+      return new Box<>();
+    }
+  }
+
+  @Pooled(maxSize = 2)
+  @Light
+  public static class Connection {}
+
+  @BeforeEach
+  void setUp() {
+    jedi = new JeDI("jedi.resolution.beanidentity");
+  }
+
+  @AfterEach
+  void tearDown() {
+    jedi.close();
+  }
+
+  @Test
+  void aSingletonSelectedWithAndWithoutItsQualifiersIsTheSameInstance() {
+    var light = new AnnotationLiteral<Light>() {};
+
+    assertSame(jedi.getBean(Pool.class), jedi.getBean(Pool.class, light));
+    assertSame(jedi.select(Pool.class).get(), jedi.select(light).select(Pool.class).get());
+  }
+
+  @Test
+  void aProducedSingletonSelectedByItsRawAndParameterizedTypeIsTheSameInstance() {
+    var parameterized = jedi.select(new TypeLiteral<Box<String>>() {}).get();
+
+    assertSame(parameterized, jedi.select(Box.class).get());
+  }
+
+  @Test
+  void aPooledBeanSelectedWithDifferentQualifiersHasASinglePool() {
+    jedi.getBean(Connection.class);
+    jedi.getBean(Connection.class, new AnnotationLiteral<Light>() {});
+
+    var metrics = ((PooledContext) jedi.getContext(Pooled.class)).getMetrics(Connection.class);
+    assertEquals(2, metrics.getInUse());
+  }
+}
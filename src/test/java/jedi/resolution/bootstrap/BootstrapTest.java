@@ -0,0 +1,116 @@
+package jedi.resolution.bootstrap;
+
+import jakarta.enterprise.inject.AmbiguousResolutionException;
+import jakarta.enterprise.inject.UnsatisfiedResolutionException;
+import jakarta.enterprise.inject.spi.DefinitionException;
+import jakarta.enterprise.inject.spi.DeploymentException;
+import jedi.JeDI;
+import jedi.resolution.bootstrap.dependentstartup.Eager;
+import jedi.resolution.bootstrap.invalid.NeedsHandler;
+import jedi.resolution.bootstrap.invalid.NeedsMissing;
+import jedi.resolution.bootstrap.invalid.NeedsNeedsMissing;
+import jedi.resolution.bootstrap.startup.Cache;
+import jedi.resolution.bootstrap.startup.ConnectionPool;
+import jedi.resolution.bootstrap.startup.Lazy;
+import jedi.resolution.bootstrap.startup.Settings;
+import jedi.resolution.bootstrap.startup.Warmup;
+import jedi.resolution.bootstrap.valid.ClockFactory;
+import jedi.resolution.bootstrap.valid.Controller;
+import jedi.resolution.bootstrap.valid.DatabaseRepository;
+import jedi.resolution.bootstrap.valid.Money;
+import jedi.resolution.bootstrap.valid.Range;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BootstrapTest {
+
+  @Test
+  void resolvesEveryBeanWithoutCreatingAny() {
+    var jedi = new JeDI("jedi.resolution.bootstrap.valid");
+    var tasks = new AtomicInteger();
+    var produced = ClockFactory.PRODUCED.get();
+
+    jedi.bootstrap(task -> {
+      tasks.incrementAndGet();
+      ForkJoinPool.commonPool().execute(task);
+    });
+
+    assertTrue(tasks.get() >= 6, tasks.get() + " beans resolved");
+    assertEquals(produced, ClockFactory.PRODUCED.get());
+    var controller = jedi.select(Controller.class).get();
+    assertInstanceOf(DatabaseRepository.class, controller.service.repository);
+    assertInstanceOf(DatabaseRepository.class, controller.repositories.get());
+    assertEquals(produced + 1, ClockFactory.PRODUCED.get());
+  }
+
+  @Test
+  void skipsTheClassesThatAreNotBeans() {
+    var jedi = new JeDI("jedi.resolution.bootstrap.valid");
+
+    jedi.bootstrap();
+
+    assertEquals(Set.of(Money.class, Range.class), jedi.getSkippedClasses());
+  }
+
+  @Test
+  void reportsEveryProblemOnce() {
+    var jedi = new JeDI("jedi.resolution.bootstrap.invalid");
+
+    var e = assertThrows(DeploymentException.class, jedi::bootstrap);
+
+    var problems = Arrays.stream(e.getSuppressed()).map(Object::getClass).collect(Collectors.toList());
+    assertEquals(3, problems.size(), e.getMessage());
+    assertTrue(problems.contains(UnsatisfiedResolutionException.class));
+    assertTrue(problems.contains(AmbiguousResolutionException.class));
+    assertTrue(problems.contains(JeDI.CircularDependencyException.class));
+    assertTrue(e.getMessage().contains(NeedsMissing.class.getName()));
+    assertTrue(e.getMessage().contains(NeedsHandler.class.getName()));
+    assertFalse(e.getMessage().contains(NeedsNeedsMissing.class.getName()));
+  }
+
+  @Test
+  void createsTheStartupBeansLevelByLevel() {
+    var jedi = new JeDI("jedi.resolution.bootstrap.startup");
+    var executor = Executors.newCachedThreadPool();
+    var lazy = Lazy.CREATED.get();
+
+    try {
+      jedi.bootstrap(executor);
+    } finally {
+      executor.shutdown();
+    }
+
+    var cache = jedi.select(Cache.class).get();
+    var pool = jedi.select(ConnectionPool.class).get();
+    assertNotSame(cache.thread, pool.thread);
+    assertSame(cache, jedi.select(Warmup.class).get().cache);
+    assertEquals(lazy, Lazy.CREATED.get());
+
+    var times = jedi.getStartupTimes();
+    var order = new ArrayList<>(times.keySet());
+    assertEquals(Set.of(Cache.class, ConnectionPool.class), Set.copyOf(order.subList(0, 2)));
+    assertEquals(Set.of(Warmup.class, Settings.class), Set.copyOf(order.subList(2, order.size())));
+    assertTrue(times.get(Cache.class).compareTo(Duration.ofMillis(100)) >= 0);
+    assertTrue(times.get(ConnectionPool.class).compareTo(Duration.ofMillis(100)) >= 0);
+  }
+
+  @Test
+  void startupBeansMustBeSingletons() {
+    var jedi = new JeDI("jedi.resolution.bootstrap.dependentstartup");
+
+    var e = assertThrows(DeploymentException.class, jedi::bootstrap);
+
+    assertInstanceOf(DefinitionException.class, e.getSuppressed()[0]);
+    assertTrue(e.getMessage().contains(Eager.class.getName()));
+  }
+}
@@ -0,0 +1,6 @@
+package jedi.resolution.bootstrap.dependentstartup;
+
+import jedi.Startup;
+
+@Startup
+public class Eager {}
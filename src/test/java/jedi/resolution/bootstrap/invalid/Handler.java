@@ -0,0 +1,3 @@
+package jedi.resolution.bootstrap.invalid;
+
+public interface Handler {}
@@ -0,0 +1,6 @@
+package jedi.resolution.bootstrap.invalid;
+
+public class NeedsMissing {
+
+  public NeedsMissing(Missing missing) {}
+}
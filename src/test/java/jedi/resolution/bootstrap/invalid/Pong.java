@@ -0,0 +1,6 @@
+package jedi.resolution.bootstrap.invalid;
+
+public class Pong {
+
+  public Pong(Ping ping) {}
+}
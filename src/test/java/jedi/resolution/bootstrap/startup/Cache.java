@@ -0,0 +1,14 @@
+package jedi.resolution.bootstrap.startup;
+
+import jakarta.inject.Singleton;
+import jedi.Startup;
+
+@Singleton
+@Startup
+public class Cache {
+  public final Thread thread = Thread.currentThread();
+
+  public Cache() throws InterruptedException {
+    Thread.sleep(100);
+  }
+}
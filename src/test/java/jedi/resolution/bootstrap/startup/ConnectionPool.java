@@ -0,0 +1,14 @@
+package jedi.resolution.bootstrap.startup;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jedi.Startup;
+
+@ApplicationScoped
+@Startup
+public class ConnectionPool {
+  public final Thread thread = Thread.currentThread();
+
+  public ConnectionPool() throws InterruptedException {
+    Thread.sleep(100);
+  }
+}
@@ -0,0 +1,14 @@
+package jedi.resolution.bootstrap.startup;
+
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Singleton
+public class Lazy {
+  public static final AtomicInteger CREATED = new AtomicInteger();
+
+  public Lazy() {
+    CREATED.incrementAndGet();
+  }
+}
@@ -0,0 +1,3 @@
+package jedi.resolution.bootstrap.startup;
+
+public class Settings {}
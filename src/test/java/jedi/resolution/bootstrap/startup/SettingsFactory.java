@@ -0,0 +1,15 @@
+package jedi.resolution.bootstrap.startup;
+
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import jedi.Startup;
+
+public class SettingsFactory {
+
+  @Produces
+  @Singleton
+  @Startup
+  public Settings settings() {
+    return new Settings();
+  }
+}
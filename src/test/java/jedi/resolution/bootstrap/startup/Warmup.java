@@ -0,0 +1,14 @@
+package jedi.resolution.bootstrap.startup;
+
+import jakarta.inject.Singleton;
+import jedi.Startup;
+
+@Singleton
+@Startup
+public class Warmup {
+  public final Cache cache;
+
+  public Warmup(Cache cache) {
+    this.cache = cache;
+  }
+}
@@ -0,0 +1,3 @@
+package jedi.resolution.bootstrap.valid;
+
+public class Clock {}
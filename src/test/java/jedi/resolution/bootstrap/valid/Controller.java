@@ -0,0 +1,13 @@
+package jedi.resolution.bootstrap.valid;
+
+import jakarta.enterprise.inject.Instance;
+
+public class Controller {
+  public final Service              service;
+  public final Instance<Repository> repositories;
+
+  public Controller(Service service, Instance<Repository> repositories) {
+    this.service = service;
+    this.repositories = repositories;
+  }
+}
@@ -0,0 +1,11 @@
+package jedi.resolution.bootstrap.valid;
+
+import java.math.BigDecimal;
+
+public class Money {
+  public final BigDecimal amount;
+
+  public Money(BigDecimal amount) {
+    this.amount = amount;
+  }
+}
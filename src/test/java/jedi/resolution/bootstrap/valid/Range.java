@@ -0,0 +1,15 @@
+package jedi.resolution.bootstrap.valid;
+
+public class Range {
+  public final int from;
+  public final int to;
+
+  public Range(int from, int to) {
+    this.from = from;
+    this.to = to;
+  }
+
+  public Range(int to) {
+    this(0, to);
+  }
+}
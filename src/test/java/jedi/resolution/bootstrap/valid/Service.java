@@ -0,0 +1,11 @@
+package jedi.resolution.bootstrap.valid;
+
+public class Service {
+  public final Repository repository;
+  public final Clock      clock;
+
+  public Service(Repository repository, Clock clock) {
+    this.repository = repository;
+    this.clock = clock;
+  }
+}
@@ -0,0 +1,154 @@
+package jedi.resolution.concurrency;
+
+import jakarta.enterprise.inject.Instance;
+import jedi.JeDI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentResolutionTest {
+  private static final String PACKAGE = "jedi.resolution.concurrency";
+  private static final int    THREADS = 8;
+  private static final int    ROUNDS  = 200;
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  interface A {}
+  interface B {}
+  public static class Shared {}
+  public static class CA implements A {
+    public CA(B b, Shared shared) {}
+  }
+  public static class CB implements B {
+    public CB(Shared shared) {}
+  }
+  public static class Root {
+    final A a;
+    public Root(A a, B b) {
+      this.a = a;
+    }
+  }
+  public static class OtherRoot {
+    public OtherRoot(B b, Shared shared) {}
+  }
+  @Test
+  void everyThreadGetsTheSameInstance() {
+    assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+      for (int round = 0; round < ROUNDS; round++) {
+        var di = new JeDI(PACKAGE);
+        var instances = runConcurrently(i -> di.select(Root.class));
+        instances.forEach(instance -> assertSame(instances.get(0), instance));
+        assertNotNull(instances.get(0).get().a);
+      }
+    });
+  }
+
+  @Test
+  void eachTypeIsResolvedOnceWhenThreadsRaceOnSharedDependencies() {
+    assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+      for (int round = 0; round < ROUNDS; round++) {
+        var di = new CountingJeDI();
+        runConcurrently(i -> di.select((Class<?>) (i % 2 == 0 ? Root.class : OtherRoot.class)));
+        di.resolutions.forEach((type, count) -> assertEquals(1, count.get(), type.getName()));
+        assertTrue(di.resolutions.keySet().containsAll(Set.of(Root.class, OtherRoot.class, A.class, B.class,
+            CA.class, CB.class, Shared.class)));
+      }
+    });
+  }
+
+  interface Y {}
+  interface Z {}
+  public static class CY implements Y {
+    public CY(Z z) {}
+  }
+  public static class CZ implements Z {
+    public CZ(Y y) {}
+  }
+  @Test
+  void circularDependenciesAreDetectedWithoutDeadlock() {
+    assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+      for (int round = 0; round < ROUNDS; round++) {
+        var di = new JeDI(PACKAGE);
+        var failures = runConcurrentlyExpectingFailures(i -> di.select((Class<?>) (i % 2 == 0 ? Y.class : Z.class)));
+        failures.forEach(e -> assertTrue(e instanceof JeDI.CircularDependencyException, e.toString()));
+        assertEquals(THREADS, failures.size());
+      }
+    });
+  }
+
+  @Test
+  void aFailedResolutionIsRetriedByTheNextCaller() {
+    var di = new JeDI(PACKAGE);
+    assertThrows(JeDI.CircularDependencyException.class, () -> di.select(Y.class));
+    assertThrows(JeDI.CircularDependencyException.class, () -> di.select(Y.class));
+    assertNotNull(di.select(Root.class).get());
+  }
+
+  private <T> List<T> runConcurrently(IntFunction<T> task) throws Exception {
+    var results = new ArrayList<T>();
+    for (var future : submit(task))
+      results.add(future.get());
+    return results;
+  }
+
+  private List<Throwable> runConcurrentlyExpectingFailures(IntFunction<?> task) throws InterruptedException {
+    var failures = new ArrayList<Throwable>();
+    for (var future : submit(task)) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        failures.add(e.getCause());
+      }
+    }
+    return failures;
+  }
+
+  private <T> List<Future<T>> submit(IntFunction<T> task) {
+    var start = new CyclicBarrier(THREADS);
+    var futures = new ArrayList<Future<T>>();
+    for (int i = 0; i < THREADS; i++) {
+      var n = i;
+      futures.add(executor.submit(() -> {
+        start.await();
+        return task.apply(n);
+      }));
+    }
+    return futures;
+  }
+
+  private static class CountingJeDI extends JeDI {
+    final Map<Class<?>, AtomicInteger> resolutions = new ConcurrentHashMap<>();
+
+    CountingJeDI() {
+      super(PACKAGE);
+    }
+
+    @Override
+    public <U> Instance<U> resolveInstance(Class<U> subtype, Set<Annotation> qualifiers) {
+      resolutions.computeIfAbsent(subtype, k -> new AtomicInteger()).incrementAndGet();
+      return super.resolveInstance(subtype, qualifiers);
+    }
+  }
+}
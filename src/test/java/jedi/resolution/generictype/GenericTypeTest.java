@@ -0,0 +1,133 @@
+package jedi.resolution.generictype;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.Produces;
+import jakarta.enterprise.util.TypeLiteral;
+import jedi.JeDI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenericTypeTest {
+  private JeDI jedi;
+
+  public static class User {
+  }
+
+  public static class Order {
+  }
+
+  public static class Invoice {
+  }
+
+  public interface Repository<T> {
+    List<T> findAll();
+  }
+
+  public abstract static class InMemoryRepository<T> implements Repository<T> {
+    @Override
+    public List<T> findAll() {
+      return List.of();
+    }
+  }
+
+  public static class UserRepository extends InMemoryRepository<User> {
+  }
+
+  public static class OrderRepository implements Repository<Order> {
+    @Override
+    public List<Order> findAll() {
+      return List.of(new Order());
+    }
+  }
+
+  public static class InvoiceRepositories {
+    @Produces
+    public Repository<Invoice> invoices() {
+      return List::of;
+    }
+  }
+
+  public static class OrderService {
+    final Repository<User>           users;
+    final Repository<Order>          orders;
+    final Instance<Repository<User>> lazyUsers;
+
+    public OrderService(Repository<User> users, Repository<Order> orders, Instance<Repository<User>> lazyUsers) {
+      this.users = users;
+      this.orders = orders;
+      this.lazyUsers = lazyUsers;
+    }
+  }
+
+  public static class Holder<T> {
+  }
+
+  public static class NumberHolder<N extends Number> {
+  }
+
+  public static class HolderService {
+    final Holder<String> strings;
+
+    public HolderService(Holder<String> strings) {
+      this.strings = strings;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    jedi = new JeDI("jedi.resolution.generictype");
+  }
+
+  @Test
+  void beansAreSelectedByTheirTypeArguments() {
+    assertTrue(jedi.select(new TypeLiteral<Repository<User>>() {}).get() instanceof UserRepository);
+    assertTrue(jedi.select(new TypeLiteral<Repository<Order>>() {}).get() instanceof OrderRepository);
+    assertTrue(jedi.select(new TypeLiteral<Repository<String>>() {}).isUnsatisfied());
+  }
+
+  @Test
+  void producerMethodsAreSelectedByTheirGenericReturnType() {
+    var invoices = jedi.select(new TypeLiteral<Repository<Invoice>>() {});
+    assertFalse(invoices.isAmbiguous());
+    assertTrue(invoices.get().findAll().isEmpty());
+  }
+
+  @Test
+  void parameterizedInjectionPointsAreResolvedByTheirTypeArguments() {
+    var service = jedi.select(OrderService.class).get();
+    assertTrue(service.users instanceof UserRepository);
+    assertTrue(service.orders instanceof OrderRepository);
+    assertTrue(service.lazyUsers.get() instanceof UserRepository);
+  }
+
+  @Test
+  void parameterizedSelectionsAreCached() {
+    assertSame(jedi.select(new TypeLiteral<Repository<User>>() {}),
+        jedi.select(new TypeLiteral<Repository<User>>() {}));
+  }
+
+  @Test
+  void instancesAreNarrowedByParameterizedType() {
+    assertTrue(jedi.select(InMemoryRepository.class).select(new TypeLiteral<InMemoryRepository<User>>() {}).get()
+        instanceof UserRepository);
+  }
+
+  @Test
+  void beanTypesIncludeTheResolvedTypeArguments() {
+    var bean = jedi.select(new TypeLiteral<Repository<User>>() {}).getHandle().getBean();
+    assertTrue(bean.getTypes().contains(new TypeLiteral<InMemoryRepository<User>>() {}.getType()));
+    assertTrue(bean.getTypes().contains(new TypeLiteral<Repository<User>>() {}.getType()));
+    assertTrue(bean.getTypes().contains(Object.class));
+  }
+
+  @Test
+  void concreteGenericClassesAreInjectedByTheirParameterizedType() {
+    assertNotNull(jedi.select(HolderService.class).get().strings);
+    assertNotNull(jedi.select(new TypeLiteral<Holder<List<String>>>() {}).get());
+    assertNotNull(jedi.select(new TypeLiteral<NumberHolder<Integer>>() {}).get());
+  }
+}